@@ -7,38 +7,24 @@ import android.util.AttributeSet;
 import android.widget.FrameLayout;
 import android.widget.TextView;
 
-import com.example.luke.customcalendar.R;
-
 public class CalendarCellView extends FrameLayout {
 
-    private static final int[] STATE_SELECTABLE = {
-            R.attr.tsquare_state_selectable
-    };
-    private static final int[] STATE_CURRENT_MONTH = {
-            R.attr.tsquare_state_current_month
-    };
-    private static final int[] STATE_TODAY = {
-            R.attr.tsquare_state_today
-    };
-    private static final int[] STATE_HIGHLIGHTED = {
-            R.attr.tsquare_state_highlighted
-    };
-    private static final int[] STATE_RANGE_FIRST = {
-            R.attr.tsquare_state_range_first
-    };
-    private static final int[] STATE_RANGE_MIDDLE = {
-            R.attr.tsquare_state_range_middle
-    };
-    private static final int[] STATE_RANGE_LAST = {
-            R.attr.tsquare_state_range_last
-    };
+    public static final int FLAG_SELECTABLE = CellFlags.SELECTABLE;
+    public static final int FLAG_CURRENT_MONTH = CellFlags.CURRENT_MONTH;
+    public static final int FLAG_TODAY = CellFlags.TODAY;
+    public static final int FLAG_HIGHLIGHTED = CellFlags.HIGHLIGHTED;
+    /** The view's own selected state, see {@link #setSelected}. */
+    public static final int FLAG_SELECTED = CellFlags.SELECTED;
+
+    /** The flags kept by the cell itself rather than by {@link android.view.View}. */
+    private static final int CELL_FLAGS =
+            FLAG_SELECTABLE | FLAG_CURRENT_MONTH | FLAG_TODAY | FLAG_HIGHLIGHTED;
 
     private TextView dayOfMonthTextView;
-    private boolean isSelectable = false;
-    private boolean isCurrentMonth = false;
-    private boolean isToday = false;
-    private boolean isHighlighted = false;
+    private int cellFlags;
     private RangeState rangeState = RangeState.NONE;
+    private boolean deferRefresh;
+    private boolean refreshDeferred;
 
     public CalendarCellView(@NonNull Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
@@ -48,25 +34,50 @@ public class CalendarCellView extends FrameLayout {
         dayOfMonthTextView = textView;
     }
 
-    public void setSelectable(boolean isSelectable) {
-        if (this.isSelectable != isSelectable) {
-            this.isSelectable = isSelectable;
-            refreshDrawableState();
+    /**
+     * Applies all of the cell's state at once: the {@code FLAG_*} flags and the range state. Cells
+     * that can't be selected, such as days of other months and disabled days, are disabled so they
+     * don't take clicks. The drawable state is refreshed at most once, and not at all if nothing
+     * changed.
+     */
+    public void setState(int flags, RangeState rangeState) {
+        final int newCellFlags = flags & CELL_FLAGS;
+        final boolean changed = newCellFlags != cellFlags || rangeState != this.rangeState;
+        cellFlags = newCellFlags;
+        this.rangeState = rangeState;
+
+        // Enabled and selected are the view's own; defer the refresh each of them would make.
+        deferRefresh = true;
+        try {
+            setEnabled((flags & FLAG_SELECTABLE) != 0);
+            setSelected((flags & FLAG_SELECTED) != 0);
+        } finally {
+            deferRefresh = false;
+        }
+        if (changed || refreshDeferred) {
+            refreshDeferred = false;
+            super.refreshDrawableState();
         }
     }
 
-    public void setCurrentMonth(boolean isCurrentMonth) {
-        if (this.isCurrentMonth != isCurrentMonth) {
-            this.isCurrentMonth = isCurrentMonth;
-            refreshDrawableState();
+    @Override public void refreshDrawableState() {
+        if (deferRefresh) {
+            refreshDeferred = true;
+            return;
         }
+        super.refreshDrawableState();
+    }
+
+    public void setSelectable(boolean isSelectable) {
+        setCellFlag(FLAG_SELECTABLE, isSelectable);
+    }
+
+    public void setCurrentMonth(boolean isCurrentMonth) {
+        setCellFlag(FLAG_CURRENT_MONTH, isCurrentMonth);
     }
 
     public void setToday(boolean isToday) {
-        if (this.isToday != isToday) {
-            this.isToday = isToday;
-            refreshDrawableState();
-        }
+        setCellFlag(FLAG_TODAY, isToday);
     }
 
     public void setRangeState(RangeState rangeState) {
@@ -77,40 +88,22 @@ public class CalendarCellView extends FrameLayout {
     }
 
     public void setHighlighted(boolean isHighlighted) {
-        if (this.isHighlighted != isHighlighted) {
-            this.isHighlighted = isHighlighted;
+        setCellFlag(FLAG_HIGHLIGHTED, isHighlighted);
+    }
+
+    private void setCellFlag(int flag, boolean value) {
+        final int newCellFlags = value ? cellFlags | flag : cellFlags & ~flag;
+        if (cellFlags != newCellFlags) {
+            cellFlags = newCellFlags;
             refreshDrawableState();
         }
     }
 
     @Override protected int[] onCreateDrawableState(int extraSpace) {
-        final int[] drawableState = super.onCreateDrawableState(extraSpace + 5);
-
-        if (isSelectable) {
-            mergeDrawableStates(drawableState, STATE_SELECTABLE);
-        }
-
-        if (isCurrentMonth) {
-            mergeDrawableStates(drawableState, STATE_CURRENT_MONTH);
-        }
-
-        if (isToday) {
-            mergeDrawableStates(drawableState, STATE_TODAY);
-        }
-
-        if (isHighlighted) {
-            mergeDrawableStates(drawableState, STATE_HIGHLIGHTED);
-        }
-
-        if (rangeState == RangeState.FIRST) {
-            mergeDrawableStates(drawableState, STATE_RANGE_FIRST);
-        } else if (rangeState == RangeState.MIDDLE) {
-            mergeDrawableStates(drawableState, STATE_RANGE_MIDDLE);
-        } else if (rangeState == RangeState.LAST) {
-            mergeDrawableStates(drawableState, STATE_RANGE_LAST);
-        }
-
-        return drawableState;
+        final int[] stateSet =
+                CellStates.stateSetOf(CellFlags.withRangeState(cellFlags, rangeState));
+        final int[] drawableState = super.onCreateDrawableState(extraSpace + stateSet.length);
+        return mergeDrawableStates(drawableState, stateSet);
     }
 
     public TextView getDayOfMonthTextView() {
@@ -17,6 +17,8 @@ public class CalendarGridView extends ViewGroup {
 
     private int oldWidthMeasureSize;
     private int oldNumRows;
+    private boolean fixedCellGeometry;
+    private CalendarMetrics metrics;
 
     public CalendarGridView(Context context, AttributeSet attrs) {
         super(context, attrs);
@@ -49,6 +51,22 @@ public class CalendarGridView extends ViewGroup {
         ((CalendarRowView) getChildAt(0)).setCellTextColor(color);
     }
 
+    /**
+     * Makes every week row exactly one cell tall. Rows then don't need to measure their cells to
+     * find the tallest one, and changing the number of rows doesn't re-measure anything.
+     */
+    public void setFixedCellGeometry(boolean fixedCellGeometry) {
+        this.fixedCellGeometry = fixedCellGeometry;
+        for (int i = 1; i < getChildCount(); i++) {
+            ((CalendarRowView) getChildAt(i)).setFixedCellGeometry(fixedCellGeometry);
+        }
+        requestLayout();
+    }
+
+    void setMetrics(CalendarMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public void setTypeface(Typeface typeface) {
         for (int i = 0; i < getChildCount(); i++) {
             ((CalendarRowView) getChildAt(i)).setTypeface(typeface);
@@ -63,7 +81,21 @@ public class CalendarGridView extends ViewGroup {
     }
 
     @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (metrics == null) {
+            measureRows(widthMeasureSpec);
+            return;
+        }
+        final long start = metrics.begin(CalendarMetricsListener.Section.MEASURE_MONTH);
+        measureRows(widthMeasureSpec);
+        metrics.end(CalendarMetricsListener.Section.MEASURE_MONTH, start);
+    }
+
+    private void measureRows(int widthMeasureSpec) {
         int widthMeasureSize = MeasureSpec.getSize(widthMeasureSpec);
+        if (fixedCellGeometry) {
+            measureFixedGeometry(widthMeasureSize);
+            return;
+        }
         if (oldWidthMeasureSize == widthMeasureSize) {
             setMeasuredDimension(getMeasuredWidth(), getMeasuredHeight());
             return;
@@ -93,8 +125,47 @@ public class CalendarGridView extends ViewGroup {
         setMeasuredDimension(measuredWidth, totalHeight);
     }
 
+    /**
+     * Measures the grid arithmetically: the height only depends on the width and the number of
+     * rows. A row is only measured when its width changed or something in it requested a layout.
+     */
+    private void measureFixedGeometry(int widthMeasureSize) {
+        final int cellSize = widthMeasureSize / 7;
+        // Remove any extra pixels since /7 is unlikely to give whole nums.
+        widthMeasureSize = cellSize * 7;
+        final int rowWidthSpec = makeMeasureSpec(widthMeasureSize, EXACTLY);
+        final int rowHeightSpec = makeMeasureSpec(cellSize, EXACTLY);
+        int totalHeight = 0;
+        for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
+            final View child = getChildAt(c);
+            if (child.getVisibility() != View.VISIBLE) {
+                continue;
+            }
+            if (child.getMeasuredWidth() != widthMeasureSize || child.isLayoutRequested()) {
+                if (c == 0) { // It's the header: height should be wrap_content.
+                    measureChild(child, rowWidthSpec, makeMeasureSpec(cellSize, AT_MOST));
+                } else {
+                    child.measure(rowWidthSpec, rowHeightSpec);
+                }
+            }
+            totalHeight += c == 0 ? child.getMeasuredHeight() : cellSize;
+        }
+        oldWidthMeasureSize = widthMeasureSize;
+        setMeasuredDimension(widthMeasureSize + 2, totalHeight); // Same fudge factor as above.
+    }
+
     @Override protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        top = 0;
+        if (metrics == null) {
+            layoutRows(left, right);
+            return;
+        }
+        final long start = metrics.begin(CalendarMetricsListener.Section.LAYOUT_MONTH);
+        layoutRows(left, right);
+        metrics.end(CalendarMetricsListener.Section.LAYOUT_MONTH, start);
+    }
+
+    private void layoutRows(int left, int right) {
+        int top = 0;
         for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
             final View child = getChildAt(c);
             final int rowHeight = child.getMeasuredHeight();
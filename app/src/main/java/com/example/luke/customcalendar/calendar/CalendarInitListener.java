@@ -0,0 +1,7 @@
+package com.example.luke.customcalendar.calendar;
+
+public interface CalendarInitListener {
+
+    /** Called on the UI thread once the months of an asynchronous init are shown. */
+    void onInitialized();
+}
@@ -1,10 +1,7 @@
 package com.example.luke.customcalendar.calendar;
 
 import android.content.Context;
-import android.content.res.Resources;
-import android.content.res.TypedArray;
-import android.graphics.Typeface;
-import android.text.format.DateUtils;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -13,95 +10,120 @@ import android.widget.BaseAdapter;
 import android.widget.ListView;
 
 import com.example.luke.customcalendar.R;
+import com.example.luke.customcalendar.calendar.CalendarMetricsListener.Section;
 
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Formatter;
-import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
 
-import static java.util.Calendar.DATE;
-import static java.util.Calendar.DAY_OF_MONTH;
-import static java.util.Calendar.DAY_OF_WEEK;
-import static java.util.Calendar.HOUR_OF_DAY;
-import static java.util.Calendar.MILLISECOND;
-import static java.util.Calendar.MINUTE;
-import static java.util.Calendar.MONTH;
-import static java.util.Calendar.SECOND;
-import static java.util.Calendar.YEAR;
-
 
 public class CalendarMainView extends ListView{
 
     private final CalendarMainView.MonthAdapter adapter;
-    private final List<MonthDescriptor> months = new ArrayList<>();
     private final MonthView.MonthViewListener monthViewListener = new CellClickedListener();
-    private final IndexedLinkedHashMap<String, List<List<MonthCellDescriptor>>> cells = new IndexedLinkedHashMap<>();
-    private final List<MonthCellDescriptor> selectedCells = new ArrayList<>();
-    private final List<Calendar> selectedCals = new ArrayList<>();
-    private final List<Calendar> highlightedCals = new ArrayList<>();
+    private final CalendarModelLoader modelLoader = new CalendarModelLoader();
+    private final CalendarMetrics metrics = new CalendarMetrics();
+    private final DayChangeTicker dayChangeTicker = new DayChangeTicker(this,
+            new DayChangeTicker.Listener() {
+                @Override public void onDayMayHaveChanged() {
+                    updateToday();
+                }
+            });
+    private final DayDecorations decorations = new DayDecorations(new DayDecorations.Listener() {
+        @Override public void onMonthDecorated(long monthId) {
+            final int firstPosition = getFirstVisiblePosition();
+            for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+                if (model.getMonthId(firstPosition + i) == monthId) {
+                    decorations.apply((MonthRenderer) getChildAt(i), monthId);
+                }
+            }
+        }
+    });
+    private DefaultMonthLabelFormatter labelFormatter;
+    private CalendarModel model;
+    private final CalendarStyle style;
     private DayViewAdapter dayViewAdapter = new DefaultDayViewAdapter();
 
-    private Calendar minCal;
-    private Calendar maxCal;
-    private Calendar monthCounter;
     private DateFormat fullDateFormat;
-    private DateFormat weekdayNameFormat;
-    private Calendar today;
-    private int dayBackgroundResId;
-    private int dayTextColorResId;
-    private int titleTextStyle;
-    private boolean displayHeader;
-    private int headerTextColor;
-    private boolean displayAlwaysDigitNumbers;
-    private boolean displayDayNamesHeaderRow;
-
-    private final StringBuilder monthBuilder = new StringBuilder(50);
-    private Formatter monthFormatter;
+    private String[] weekdayNames;
 
-    private DaySelectListener daySelectListener;
+    private int lastUpdatedCellCount;
+    /** State restored before the calendar was initialized, applied by the next init. */
+    private CalendarSavedState pendingState;
 
 
     public CalendarMainView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        Resources res = context.getResources();
-        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.CalendarPickerView);
-        final int bg = a.getColor(R.styleable.CalendarPickerView_android_background,
-                res.getColor(R.color.calendar_bg));
-
-        dayBackgroundResId = a.getResourceId(R.styleable.CalendarPickerView_tsquare_dayBackground,
-                R.drawable.calendar_bg_selector);
-        dayTextColorResId = a.getResourceId(R.styleable.CalendarPickerView_tsquare_dayTextColor,
-                R.color.calendar_text_selector);
-        titleTextStyle = a.getResourceId(R.styleable.CalendarPickerView_tsquare_titleTextStyle,
-                R.style.CalendarTitle);
-        displayHeader = a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayHeader, true);
-        headerTextColor = a.getColor(R.styleable.CalendarPickerView_tsquare_headerTextColor,
-                res.getColor(R.color.calendar_text_active));
-        displayDayNamesHeaderRow =
-                a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayDayNamesHeaderRow, true);
-
-        a.recycle();
+        style = new CalendarStyle(context, attrs);
+        labelFormatter = new DefaultMonthLabelFormatter(context, style.displayAlwaysDigitNumbers);
+        model = new CalendarModel(labelFormatter);
 
         adapter = new MonthAdapter();
         setDivider(null);
         setDividerHeight(0);
-        setBackgroundColor(bg);
-        setCacheColorHint(bg);
-        today = Calendar.getInstance();
+        setBackgroundColor(style.backgroundColor);
+        setCacheColorHint(style.backgroundColor);
+
+        weekdayNames = WeekdayNames.of(context.getString(R.string.day_name_format),
+                TimeZone.getDefault(), Locale.getDefault());
+    }
 
-        weekdayNameFormat = new SimpleDateFormat(context.getString(R.string.day_name_format));
+    /**
+     * Disables the days matched by {@code rule}, e.g. {@link DateRule#weekends()} or fully booked
+     * days; null enables all days between the bounds again. Ranges can't span disabled days.
+     */
+    public void setDisabledDateRule(DateRule rule) {
+        model.setDisabledDateRule(rule);
+        validateAndUpdate();
+    }
+
+    /**
+     * Sets the days that can end a range but can't start one, e.g. no check-in on Sundays with
+     * {@code DateRule.daysOfWeek(Calendar.SUNDAY)}; null lets any selectable day start a range.
+     */
+    public void setNoRangeStartRule(DateRule rule) {
+        model.setNoRangeStartRule(rule);
+    }
+
+    /**
+     * Sets the adapter that creates the content of day cells. Months of each adapter class are
+     * pooled separately, so switching between adapters reuses their views once inflated.
+     */
+    public void setCustomDayView(DayViewAdapter dayViewAdapter) {
+        this.dayViewAdapter = dayViewAdapter;
+        validateAndUpdate();
     }
 
     public void setDaySelectListener(DaySelectListener daySelectListener) {
-        this.daySelectListener = daySelectListener;
+        model.setDaySelectListener(daySelectListener);
+    }
+
+    /**
+     * Decorates day cells with data loaded by {@code provider} in the background, one month at a
+     * time. Pass null to stop decorating. Months drawn on canvas aren't decorated.
+     */
+    public void setDayDecorationProvider(DayDecorationProvider<?> provider) {
+        decorations.setProvider(provider);
+        redecorateVisibleMonths();
+    }
+
+    /** Reloads the decorations of all months, e.g. after the data behind them changed. */
+    public void invalidateDayDecorations() {
+        decorations.invalidate();
+        redecorateVisibleMonths();
+    }
+
+    /**
+     * Reports how long initializing, building, binding, measuring and laying out months and
+     * selecting dates take, and marks these sections in systrace. Pass null to stop.
+     */
+    public void setMetricsListener(CalendarMetricsListener metricsListener) {
+        metrics.setListener(metricsListener);
     }
 
     public Initializer init(Date minDate, Date maxDate) {
@@ -109,188 +131,127 @@ public class CalendarMainView extends ListView{
     }
 
     public Initializer init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
-        if (minDate == null || maxDate == null) {
-            throw new IllegalArgumentException(
-                    "minDate and maxDate must be non-null.  " + dbg(minDate, maxDate));
-        }
-        if (minDate.after(maxDate)) {
-            throw new IllegalArgumentException(
-                    "minDate must be before maxDate.  " + dbg(minDate, maxDate));
-        }
-        if (locale == null) {
-            throw new IllegalArgumentException("Locale is null.");
-        }
-        if (timeZone == null) {
-            throw new IllegalArgumentException("Time zone is null.");
-        }
-
-        // Make sure that all calendar instances use the same time zone and locale.
-        today = Calendar.getInstance(timeZone, locale);
-        minCal = Calendar.getInstance(timeZone, locale);
-        maxCal = Calendar.getInstance(timeZone, locale);
-        monthCounter = Calendar.getInstance(timeZone, locale);
-        for (MonthDescriptor month : months) {
-            month.setLabel(formatMonthDate(month.getDate()));
-        }
-        weekdayNameFormat =
-                new SimpleDateFormat(getContext().getString(R.string.day_name_format), locale);
-        weekdayNameFormat.setTimeZone(timeZone);
-        fullDateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
-        fullDateFormat.setTimeZone(timeZone);
-        monthFormatter = new Formatter(monthBuilder, locale);
-
-        selectedCals.clear();
-        selectedCells.clear();
-
-        // Clear previous state.
-        cells.clear();
-        months.clear();
-        minCal.setTime(minDate);
-        maxCal.setTime(maxDate);
-        setMidnight(minCal);
-        setMidnight(maxCal);
-
-        // maxDate is exclusive: bump back to the previous day so if maxDate is the first of a month,
-        // we don't accidentally include that month in the view.
-        maxCal.add(MINUTE, -1);
-
-        // Now iterate between minCal and maxCal and build up our list of months to show.
-        monthCounter.setTime(minCal.getTime());
-        final int maxMonth = maxCal.get(MONTH);
-        final int maxYear = maxCal.get(YEAR);
-        while ((monthCounter.get(MONTH) <= maxMonth // Up to, including the month.
-                || monthCounter.get(YEAR) < maxYear) // Up to the year.
-                && monthCounter.get(YEAR) < maxYear + 1) { // But not > next yr.
-            Date date = monthCounter.getTime();
-            MonthDescriptor month =
-                    new MonthDescriptor(monthCounter.get(MONTH), monthCounter.get(YEAR),
-                            date, formatMonthDate(date));
-            cells.put(monthKey(month), getMonthCells(month, monthCounter));
-            months.add(month);
-            monthCounter.add(MONTH, 1);
-        }
+        modelLoader.cancel();
+        final long start = metrics.begin(Section.INIT);
+        model.init(minDate, maxDate, timeZone, locale);
+        metrics.end(Section.INIT, start);
+        applyLocale(timeZone, locale);
 
         validateAndUpdate();
+        restorePendingState();
 
         return new Initializer();
     }
 
-    private static String dbg(Date minDate, Date maxDate) {
-        return "minDate: " + minDate + "\nmaxDate: " + maxDate;
+    public Initializer initUnbounded() {
+        return initUnbounded(TimeZone.getDefault(), Locale.getDefault());
     }
 
-    private String formatMonthDate(Date date) {
-        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR
-                | DateUtils.FORMAT_NO_MONTH_DAY;
+    /**
+     * Initializes the calendar without bounds: every month from 1601 to 2400 can be scrolled to,
+     * starting around today. Months are built as they're shown and only the most recent ones are
+     * kept, see {@link #setMaxCachedMonths}.
+     */
+    public Initializer initUnbounded(TimeZone timeZone, Locale locale) {
+        modelLoader.cancel();
+        final long start = metrics.begin(Section.INIT);
+        model.initUnbounded(timeZone, locale);
+        metrics.end(Section.INIT, start);
+        applyLocale(timeZone, locale);
 
-        String dateFormatted;
-        if (displayAlwaysDigitNumbers) {
-            StringBuilder sb = new StringBuilder();
-            SimpleDateFormat sdfMonth = new SimpleDateFormat(getContext()
-                    .getString(R.string.month_only_name_format));
-            SimpleDateFormat sdfYear = new SimpleDateFormat(getContext()
-                    .getString(R.string.year_only_format), Locale.ENGLISH);
-            dateFormatted = sb.append(sdfMonth.format(date.getTime())).append(" ")
-                    .append(sdfYear.format(date.getTime())).toString();
-        } else {
-            // Format date using the new Locale
-            dateFormatted = DateUtils.formatDateRange(getContext(), monthFormatter,
-                    date.getTime(), date.getTime(), flags, TimeZone.getDefault().getID()).toString();
-        }
-        // Call setLength(0) on StringBuilder passed to the Formatter constructor to not accumulate
-        // the results
-        monthBuilder.setLength(0);
-
-        // Restore default Locale to avoid generating any side effects
-        Locale defaultLocale = Locale.getDefault();
-        Locale.setDefault(defaultLocale);
-
-        return dateFormatted;
-    }
-
-    List<List<MonthCellDescriptor>> getMonthCells(MonthDescriptor month, Calendar startCal) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(startCal.getTime());
-        List<List<MonthCellDescriptor>> cells = new ArrayList<>();
-        cal.set(DAY_OF_MONTH, 1);
-        int firstDayOfWeek = cal.get(DAY_OF_WEEK);
-        int offset = cal.getFirstDayOfWeek() - firstDayOfWeek;
-        if (offset > 0) {
-            offset -= 7;
-        }
-        cal.add(Calendar.DATE, offset);
-
-        Calendar minSelectedCal = minDate(selectedCals);
-        Calendar maxSelectedCal = maxDate(selectedCals);
-
-        while ((cal.get(MONTH) < month.getMonth() + 1 || cal.get(YEAR) < month.getYear()) //
-                && cal.get(YEAR) <= month.getYear()) {
-            List<MonthCellDescriptor> weekCells = new ArrayList<>();
-            cells.add(weekCells);
-            for (int c = 0; c < 7; c++) {
-                Date date = cal.getTime();
-                boolean isCurrentMonth = cal.get(MONTH) == month.getMonth();
-                boolean isSelected = isCurrentMonth && containsDate(selectedCals, cal);
-                boolean isSelectable =
-                        isCurrentMonth && betweenDates(cal, minCal, maxCal);
-                boolean isToday = sameDate(cal, today);
-                boolean isHighlighted = containsDate(highlightedCals, cal);
-                int value = cal.get(DAY_OF_MONTH);
-
-                RangeState rangeState = RangeState.NONE;
-                if (selectedCals.size() > 1) {
-                    if (sameDate(minSelectedCal, cal)) {
-                        rangeState = RangeState.FIRST;
-                    } else if (sameDate(maxDate(selectedCals), cal)) {
-                        rangeState = RangeState.LAST;
-                    } else if (betweenDates(cal, minSelectedCal, maxSelectedCal)) {
-                        rangeState = RangeState.MIDDLE;
-                    }
-                }
+        validateAndUpdate();
+        scrollToSelectedDates();
+        restorePendingState();
 
-                weekCells.add(
-                        new MonthCellDescriptor(date, isCurrentMonth, isSelectable, isSelected, isToday,
-                                isHighlighted, value, rangeState));
-                cal.add(DATE, 1);
-            }
-        }
-        return cells;
+        return new Initializer();
     }
 
-    private Calendar minDate(List<Calendar> selectedCals) {
-        if (selectedCals == null || selectedCals.size() == 0) {
-            return null;
-        }
-        Collections.sort(selectedCals);
-        return selectedCals.get(0);
+    /**
+     * Sets how many built months are kept in memory, 24
+     * by default. Months far from the viewport are evicted first and rebuilt when scrolled back to.
+     */
+    public void setMaxCachedMonths(int maxCachedMonths) {
+        model.setMaxCachedMonths(maxCachedMonths);
     }
 
-    private Calendar maxDate(List<Calendar> selectedCals) {
-        if (selectedCals == null || selectedCals.size() == 0) {
-            return null;
-        }
-        Collections.sort(selectedCals);
-        return selectedCals.get(selectedCals.size() - 1);
+    public MonthCacheStats getMonthCacheStats() {
+        return model.getMonthCacheStats();
     }
 
-    private boolean containsDate(List<Calendar> selectedCals, Calendar cal) {
-        for (Calendar selectedCal : selectedCals) {
-            if (sameDate(cal, selectedCal)) {
-                return true;
-            }
-        }
-        return false;
+    public void initAsync(Date minDate, Date maxDate, CalendarInitListener listener) {
+        initAsync(minDate, maxDate, TimeZone.getDefault(), Locale.getDefault(), listener);
+    }
+
+    /**
+     * Like {@link #init(Date, Date, TimeZone, Locale)}, but builds the months on a background
+     * thread. Until the months around the initial one are ready the calendar is empty and shows its
+     * {@link #setEmptyView empty view}, if any. {@code listener} is then called on the UI thread,
+     * after which dates can be selected and highlighted.
+     */
+    public void initAsync(Date minDate, Date maxDate, final TimeZone timeZone, final Locale locale,
+                          final CalendarInitListener listener) {
+        final DefaultMonthLabelFormatter nextLabelFormatter =
+                new DefaultMonthLabelFormatter(getContext(), style.displayAlwaysDigitNumbers);
+        nextLabelFormatter.setLocale(locale);
+        nextLabelFormatter.setTimeZone(timeZone);
+        final CalendarModel nextModel = new CalendarModel(nextLabelFormatter);
+        nextModel.setMaxCachedMonths(model.getMonthCacheStats().getMaxSize());
+        nextModel.setDisabledDateRule(model.getDisabledDateRule());
+        nextModel.setNoRangeStartRule(model.getNoRangeStartRule());
+        modelLoader.load(nextModel, minDate, maxDate, timeZone, locale, metrics,
+                new CalendarModelLoader.Callback() {
+                    @Override public void onModelLoaded(CalendarModel loadedModel) {
+                        loadedModel.setDaySelectListener(model.getDaySelectListener());
+                        // The rules may have changed while loading.
+                        loadedModel.setDisabledDateRule(model.getDisabledDateRule());
+                        loadedModel.setNoRangeStartRule(model.getNoRangeStartRule());
+                        model = loadedModel;
+                        labelFormatter = nextLabelFormatter;
+                        applyLocale(timeZone, locale);
+                        validateAndUpdate();
+                        scrollToSelectedDates();
+                        restorePendingState();
+                        if (listener != null) {
+                            listener.onInitialized();
+                        }
+                    }
+                });
+
+        // Show no months, rather than the previous ones, while loading.
+        final CalendarModel placeholder = new CalendarModel(labelFormatter);
+        placeholder.setDaySelectListener(model.getDaySelectListener());
+        placeholder.setDisabledDateRule(model.getDisabledDateRule());
+        placeholder.setNoRangeStartRule(model.getNoRangeStartRule());
+        placeholder.setMaxCachedMonths(nextModel.getMonthCacheStats().getMaxSize());
+        model = placeholder;
+        validateAndUpdate();
     }
 
-    private static boolean betweenDates(Calendar cal, Calendar minCal, Calendar maxCal) {
-        final Date date = cal.getTime();
-        return betweenDates(date, minCal, maxCal);
+    /**
+     * Switches to {@code locale} and {@code timeZone} without re-initializing: the selection,
+     * highlights and bounds stay on the same dates, month titles are formatted again and day names
+     * come from a cache shared per locale. Month grids are only rebuilt if the first day of the
+     * week changes.
+     */
+    public void setLocale(Locale locale, TimeZone timeZone) {
+        model.setLocale(timeZone, locale);
+        applyLocale(timeZone, locale);
+        validateAndUpdate();
     }
 
-    static boolean betweenDates(Date date, Calendar minCal, Calendar maxCal) {
-        final Date min = minCal.getTime();
-        return (date.equals(min) || date.after(min)) // >= minCal
-                && date.before(maxCal.getTime()); // && < maxCal
+    private void applyLocale(TimeZone timeZone, Locale locale) {
+        // Decorations are loaded for the first day of each month, which depends on the time zone.
+        decorations.invalidate();
+        // Make sure that all calendar instances use the same time zone and locale.
+        weekdayNames = WeekdayNames.of(getContext().getString(R.string.day_name_format), timeZone,
+                locale);
+        fullDateFormat = DateFormat.getDateInstance(DateFormat.MEDIUM, locale);
+        fullDateFormat.setTimeZone(timeZone);
+        labelFormatter.setLocale(locale);
+        labelFormatter.setTimeZone(timeZone);
+        if (model.isInitialized()) {
+            dayChangeTicker.scheduleAt(model.getNextDayMillis());
+        }
     }
 
 
@@ -318,71 +279,38 @@ public class CalendarMainView extends ListView{
         }
     }
 
+    /**
+     * Highlights the given dates in addition to the ones already highlighted. Dates outside the
+     * months shown by the calendar are ignored. Highlights are cleared by {@link #init}.
+     */
+    public void highlightDates(Collection<Date> dates) {
+        rebindMonths(model.highlight(dates));
+    }
+
+    public void unhighlightDates(Collection<Date> dates) {
+        rebindMonths(model.unhighlight(dates));
+    }
+
+    public void clearHighlightedDates() {
+        rebindMonths(model.clearHighlights());
+    }
+
     public boolean selectDate(Date date) {
         return selectDate(date, false);
     }
 
     public boolean selectDate(Date date, boolean smoothScroll) {
-        validateDate(date);
-
-        MonthCellWithMonthIndex monthCellWithMonthIndex = getMonthCellWithIndexByDate(date);
-        if (monthCellWithMonthIndex == null) {
+        MonthCellDescriptor cell = model.getSelectableCell(date);
+        if (cell == null) {
             return false;
         }
-        boolean wasSelected = doSelectDate(date, monthCellWithMonthIndex.cell);
+        boolean wasSelected = doSelectDate(cell);
         if (wasSelected) {
-            scrollToSelectedMonth(monthCellWithMonthIndex.monthIndex, smoothScroll);
+            scrollToSelectedMonth(model.monthIndexOf(cell.getDay()), smoothScroll);
         }
         return wasSelected;
     }
 
-    private void validateDate(Date date) {
-        if (date == null) {
-            throw new IllegalArgumentException("Selected date must be non-null.");
-        }
-        if (date.before(minCal.getTime()) || date.after(maxCal.getTime())) {
-            throw new IllegalArgumentException(String.format(
-                    "SelectedDate must be between minDate and maxDate."
-                            + "%nminDate: %s%nmaxDate: %s%nselectedDate: %s", minCal.getTime(), maxCal.getTime(),
-                    date));
-        }
-    }
-
-    private static class MonthCellWithMonthIndex {
-        MonthCellDescriptor cell;
-        int monthIndex;
-
-        MonthCellWithMonthIndex(MonthCellDescriptor cell, int monthIndex) {
-            this.cell = cell;
-            this.monthIndex = monthIndex;
-        }
-    }
-
-    private MonthCellWithMonthIndex getMonthCellWithIndexByDate(Date date) {
-        Calendar searchCal = Calendar.getInstance();
-        searchCal.setTime(date);
-        String monthKey = monthKey(searchCal);
-        Calendar actCal = Calendar.getInstance();
-
-        int index = cells.getIndexOfKey(monthKey);
-        List<List<MonthCellDescriptor>> monthCells = cells.get(monthKey);
-        for (List<MonthCellDescriptor> weekCells : monthCells) {
-            for (MonthCellDescriptor actCell : weekCells) {
-                actCal.setTime(actCell.getDate());
-                if (sameDate(actCal, searchCal) && actCell.isSelectable()) {
-                    return new MonthCellWithMonthIndex(actCell, index);
-                }
-            }
-        }
-        return null;
-    }
-
-    private boolean sameDate(Calendar cal, Calendar selectedDate) {
-        return cal.get(MONTH) == selectedDate.get(MONTH)
-                && cal.get(YEAR) == selectedDate.get(YEAR)
-                && cal.get(DAY_OF_MONTH) == selectedDate.get(DAY_OF_MONTH);
-    }
-
     private void scrollToSelectedMonth(final int selectedIndex) {
         scrollToSelectedMonth(selectedIndex, false);
     }
@@ -400,37 +328,17 @@ public class CalendarMainView extends ListView{
     }
 
     private void scrollToSelectedDates() {
-        Integer selectedIndex = null;
-        Integer todayIndex = null;
-        Calendar today = Calendar.getInstance();
-        for (int c = 0; c < months.size(); c++) {
-            MonthDescriptor month = months.get(c);
-            if (selectedIndex == null) {
-                for (Calendar selectedCal : selectedCals) {
-                    if (sameMonth(selectedCal, month)) {
-                        selectedIndex = c;
-                        break;
-                    }
-                }
-                if (selectedIndex == null && todayIndex == null && sameMonth(today, month)) {
-                    todayIndex = c;
-                }
-            }
+        int initialIndex = model.getInitialMonthIndex();
+        if (initialIndex >= 0) {
+            scrollToSelectedMonth(initialIndex);
         }
-        if (selectedIndex != null) {
-            scrollToSelectedMonth(selectedIndex);
-        } else if (todayIndex != null) {
-            scrollToSelectedMonth(todayIndex);
-        }
-    }
-
-    private boolean sameMonth(Calendar cal, MonthDescriptor month) {
-        return (cal.get(MONTH) == month.getMonth() && cal.get(YEAR) == month.getYear());
     }
 
     private class MonthAdapter extends BaseAdapter{
 
         private final LayoutInflater inflater;
+        private final MonthViewTypes viewTypes =
+                new MonthViewTypes(MonthViewTypes.MAX_POOLED_ADAPTERS);
 
         public MonthAdapter() {
             this.inflater = LayoutInflater.from(getContext());;
@@ -438,12 +346,12 @@ public class CalendarMainView extends ListView{
 
         @Override
         public int getCount() {
-            return months.size();
+            return model.getMonthCount();
         }
 
         @Override
         public Object getItem(int position) {
-            return months.get(position);
+            return model.getMonth(position);
         }
 
         @Override
@@ -452,116 +360,176 @@ public class CalendarMainView extends ListView{
         }
 
         @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-            MonthView monthView = (MonthView) convertView;
+        public int getViewTypeCount() {
+            return MonthViewTypes.MAX_POOLED_ADAPTERS + 1;
+        }
 
-            if(monthView == null || monthView.getTag(R.id.day_view_adapter_class).equals(dayViewAdapter.getClass()) == false){
-                monthView = MonthView.create(parent, inflater, weekdayNameFormat, monthViewListener, today, dayBackgroundResId, dayTextColorResId,
-                        titleTextStyle, displayHeader, headerTextColor, displayDayNamesHeaderRow, dayViewAdapter);
+        @Override
+        public int getItemViewType(int position) {
+            final int type = viewTypes.of(style, dayViewAdapter);
+            // Months of adapters beyond the pooled ones are created afresh.
+            return type != MonthViewTypes.NO_TYPE ? type : IGNORE_ITEM_VIEW_TYPE;
+        }
 
-                monthView.setTag(R.id.day_view_adapter_class, dayViewAdapter.getClass());
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            // The list only passes a convertView of the same type, i.e. the same DayViewAdapter.
+            View monthView = convertView;
+            if (monthView == null) {
+                monthView = (View) style.createMonthView(parent, inflater, weekdayNames,
+                        monthViewListener, dayViewAdapter);
             }
 
-            monthView.init(months.get(position), cells.getValueAtIndex(position));
+            bindMonth((MonthRenderer) monthView, position);
 
             return monthView;
         }
     }
 
-    private class CellClickedListener implements MonthView.MonthViewListener {
-        @Override public void handleClick(MonthCellDescriptor cell) {
-            Date clickedDate = cell.getDate();
-            doSelectDate(clickedDate, cell);
+    /** Binds a month, timing the build of its grid separately from the bind. */
+    private void bindMonth(MonthRenderer monthView, int position) {
+        monthView.setMetrics(metrics);
+        monthView.setWeekdayNames(weekdayNames);
+        if (metrics.isEnabled() && !model.isMonthBuilt(position)) {
+            final long buildStart = metrics.begin(Section.BUILD_MONTH);
+            model.getMonthCells(position);
+            metrics.end(Section.BUILD_MONTH, buildStart);
+        }
+        final long start = metrics.begin(Section.BIND_MONTH);
+        monthView.init(model.getMonth(position), model.getMonthCells(position),
+                model.getSelection(), model.getHighlightedDays());
+        metrics.end(Section.BIND_MONTH, start);
+        decorateMonth(monthView, position);
+    }
+
+    private void decorateMonth(MonthRenderer monthView, int position) {
+        if (decorations.isEnabled() && monthView.canDecorate()) {
+            decorations.bind(monthView, model.getMonthId(position),
+                    model.getMonth(position).getDate(), model.getDayCount(position));
         }
     }
 
-    private boolean doSelectDate(Date date, MonthCellDescriptor cell) {
-        Calendar newlySelectedCal = Calendar.getInstance();
-        newlySelectedCal.setTime(date);
-        // Sanitize input: clear out the hours/minutes/seconds/millis.
-        setMidnight(newlySelectedCal);
+    private void redecorateVisibleMonths() {
+        final int firstPosition = getFirstVisiblePosition();
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            decorateMonth((MonthRenderer) getChildAt(i), firstPosition + i);
+        }
+    }
 
-        // Clear any remaining range state.
-        for (MonthCellDescriptor selectedCell : selectedCells) {
-            selectedCell.setRangeState(RangeState.NONE);
+    /** Rebinds the visible months whose index is set in {@code monthIndices}. */
+    private void rebindMonths(BitSet monthIndices) {
+        final int firstPosition = getFirstVisiblePosition();
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            if (monthIndices.get(firstPosition + i)) {
+                bindMonth((MonthRenderer) getChildAt(i), firstPosition + i);
+            }
         }
+    }
 
-        if (selectedCals.size() > 1) {
-            // We've already got a range selected: clear the old one.
-            clearOldSelections();
-        } else if (selectedCals.size() == 1 && newlySelectedCal.before(selectedCals.get(0))) {
-            // We're moving the start of the range back in time: clear the old start date.
-            clearOldSelections();
+    private class CellClickedListener implements MonthView.MonthViewListener {
+        @Override public void handleClick(MonthCellDescriptor cell) {
+            doSelectDate(cell);
         }
+    }
 
-        if (date != null) {
-            // Select a new cell.
-            if (selectedCells.size() == 0 || !selectedCells.get(0).equals(cell)) {
-                selectedCells.add(cell);
-                cell.setSelected(true);
-                if(daySelectListener != null && selectedCells.size() == 1){
-                    daySelectListener.selectStartDate(cell.getDate());
-                }
-            }
-            selectedCals.add(newlySelectedCal);
-
-            if (selectedCells.size() > 1) {
-                // Select all days in between start and end.
-                Date start = selectedCells.get(0).getDate();
-                Date end = selectedCells.get(1).getDate();
-                selectedCells.get(0).setRangeState(RangeState.FIRST);
-                selectedCells.get(1).setRangeState(RangeState.LAST);
-
-                int startMonthIndex = cells.getIndexOfKey(monthKey(selectedCals.get(0)));
-                int endMonthIndex = cells.getIndexOfKey(monthKey(selectedCals.get(1)));
-                for (int monthIndex = startMonthIndex; monthIndex <= endMonthIndex; monthIndex++) {
-                    List<List<MonthCellDescriptor>> month = cells.getValueAtIndex(monthIndex);
-                    for (List<MonthCellDescriptor> week : month) {
-                        for (MonthCellDescriptor singleCell : week) {
-                            if (singleCell.getDate().after(start)
-                                    && singleCell.getDate().before(end)
-                                    && singleCell.isSelectable()) {
-                                singleCell.setSelected(true);
-                                singleCell.setRangeState(RangeState.MIDDLE);
-                                selectedCells.add(singleCell);
-                            }
-                        }
-                    }
-                }
+    private boolean doSelectDate(MonthCellDescriptor cell) {
+        final long start = metrics.begin(Section.SELECT);
+        final boolean wasSelected = model.select(cell);
+        if (wasSelected) {
+            updateChangedCells();
+        }
+        metrics.end(Section.SELECT, start);
+        return wasSelected;
+    }
 
-                if(daySelectListener != null){
-                    daySelectListener.selectLastDate(end);
-                }
-            }
+    /** Updates in place the visible cells recorded in the model's {@link CellChanges}. */
+    private void updateChangedCells() {
+        final CellChanges changes = model.getCellChanges();
+        int updated = 0;
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            updated += ((MonthRenderer) getChildAt(i)).updateCells(changes, model.getSelection(),
+                    model.getHighlightedDays());
         }
+        changes.clear();
+        lastUpdatedCellCount = updated;
+    }
 
-        // Update the adapter.
-        validateAndUpdate();
-        return date != null;
+    /**
+     * Returns the number of day cells that were updated after the last selection change. Months
+     * and cells that didn't change are never rebound.
+     */
+    public int getLastUpdatedCellCount() {
+        return lastUpdatedCellCount;
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        final Parcelable superState = super.onSaveInstanceState();
+        final View firstChild = getChildAt(0);
+        final long firstVisibleMonthId = firstChild != null && model.isInitialized()
+                ? model.getMonthId(getFirstVisiblePosition()) : CalendarSavedState.NO_MONTH;
+        return CalendarSavedState.of(superState, model, pendingState, firstVisibleMonthId,
+                firstChild != null ? firstChild.getTop() : 0);
     }
 
-    private void clearOldSelections() {
-        for (MonthCellDescriptor selectedCell : selectedCells) {
-            // De-select the currently-selected cell.
-            selectedCell.setSelected(false);
+    /**
+     * Restores the selection, highlights and scroll position without rebuilding any month. If the
+     * calendar isn't initialized yet, e.g. while {@link #initAsync} is loading, they're restored
+     * by the next init.
+     */
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof CalendarSavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        pendingState = (CalendarSavedState) state;
+        super.onRestoreInstanceState(pendingState.getSuperState());
+        if (model.isInitialized()) {
+            restorePendingState();
         }
-        selectedCells.clear();
-        selectedCals.clear();
     }
 
-    private void setMidnight(Calendar cal) {
-        cal.set(HOUR_OF_DAY, 0);
-        cal.set(MINUTE, 0);
-        cal.set(SECOND, 0);
-        cal.set(MILLISECOND, 0);
+    private void restorePendingState() {
+        if (pendingState == null) {
+            return;
+        }
+        final CalendarSavedState state = pendingState;
+        pendingState = null;
+        state.restore(model);
+        validateAndUpdate();
+        final int monthIndex = state.getFirstVisibleMonthIndex(model);
+        if (monthIndex >= 0) {
+            // Posted after the scroll to the selected month that init posts, so it wins.
+            post(new Runnable() {
+                @Override public void run() {
+                    setSelectionFromTop(monthIndex, state.firstVisibleMonthTop);
+                }
+            });
+        }
     }
 
-    private String monthKey(Calendar cal) {
-        return cal.get(YEAR) + "-" + cal.get(MONTH);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        dayChangeTicker.start();
     }
 
-    private String monthKey(MonthDescriptor month) {
-        return month.getYear() + "-" + month.getMonth();
+    @Override
+    protected void onDetachedFromWindow() {
+        dayChangeTicker.stop();
+        super.onDetachedFromWindow();
+    }
+
+    /** Moves the today state to the current day if it changed, rebinding only the affected cells. */
+    private void updateToday() {
+        if (!model.isInitialized()) {
+            return;
+        }
+        if (model.updateToday()) {
+            updateChangedCells();
+        }
+        dayChangeTicker.scheduleAt(model.getNextDayMillis());
     }
 
     private void validateAndUpdate() {
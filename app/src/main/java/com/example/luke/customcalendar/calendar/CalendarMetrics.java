@@ -0,0 +1,52 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.os.Trace;
+
+import com.example.luke.customcalendar.calendar.CalendarMetricsListener.Section;
+
+/**
+ * Times sections for a {@link CalendarMetricsListener} and wraps them in {@link Trace} sections.
+ * Without a listener, {@link #begin} and {@link #end} only check a field.
+ *
+ * <pre>
+ * final long start = metrics.begin(Section.BIND_MONTH);
+ * ...
+ * metrics.end(Section.BIND_MONTH, start);
+ * </pre>
+ */
+final class CalendarMetrics {
+
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private volatile CalendarMetricsListener listener;
+
+    void setListener(CalendarMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /** Starts timing {@code section}; the result must be passed to {@link #end}. */
+    long begin(Section section) {
+        if (listener == null) {
+            return NOT_TIMED;
+        }
+        Trace.beginSection(section.traceName);
+        return System.nanoTime();
+    }
+
+    void end(Section section, long start) {
+        if (start == NOT_TIMED) {
+            return;
+        }
+        final long duration = System.nanoTime() - start;
+        Trace.endSection();
+        // The listener may have been removed since begin(); the trace section still had to end.
+        final CalendarMetricsListener listener = this.listener;
+        if (listener != null) {
+            listener.onSectionTimed(section, duration);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.luke.customcalendar.calendar;
+
+/**
+ * Receives the duration of the calendar's main sections of work, one call per run of a section.
+ * The same sections show up in systrace/Perfetto captures while a listener is installed.
+ */
+public interface CalendarMetricsListener {
+
+    enum Section {
+        /** Initializing the months and bounds, on the UI thread or, for initAsync, in the background. */
+        INIT("Calendar:init"),
+        /** Building the cell grid of a month that wasn't built or cached yet. */
+        BUILD_MONTH("Calendar:buildMonth"),
+        /** Binding a month to its view, not including building it. */
+        BIND_MONTH("Calendar:bindMonth"),
+        MEASURE_MONTH("Calendar:measureMonth"),
+        LAYOUT_MONTH("Calendar:layoutMonth"),
+        /** Applying a tap or selectDate to the selection and updating the affected cells. */
+        SELECT("Calendar:select");
+
+        final String traceName;
+
+        Section(String traceName) {
+            this.traceName = traceName;
+        }
+    }
+
+    /** Called on the thread that ran {@code section}, right after it finished. */
+    void onSectionTimed(Section section, long durationNanos);
+}
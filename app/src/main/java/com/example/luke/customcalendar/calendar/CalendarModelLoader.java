@@ -0,0 +1,71 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Initializes {@link CalendarModel}s on a background thread and hands them over to the UI thread,
+ * with the months around the initial one already built. A model isn't touched by the UI thread
+ * until it's handed over, and only the latest load is delivered.
+ */
+final class CalendarModelLoader {
+
+    /** Months built ahead on each side of the initial month. */
+    private static final int PREFETCH_RADIUS = 2;
+
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "CalendarModelLoader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    interface Callback {
+        void onModelLoaded(CalendarModel model);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int generation;
+
+    /**
+     * Calls {@link CalendarModel#init} on {@code model} in the background, then {@code callback}
+     * on the UI thread. Invalid arguments throw right away. Must be called on the UI thread.
+     */
+    void load(final CalendarModel model, final Date minDate, final Date maxDate,
+              final TimeZone timeZone, final Locale locale, final CalendarMetrics metrics,
+              final Callback callback) {
+        CalendarModel.checkInitArguments(minDate, maxDate, timeZone, locale);
+        final int loadGeneration = ++generation;
+        EXECUTOR.execute(new Runnable() {
+            @Override public void run() {
+                final long start = metrics.begin(CalendarMetricsListener.Section.INIT);
+                model.init(minDate, maxDate, timeZone, locale);
+                final int initialIndex = Math.max(0, model.getInitialMonthIndex());
+                model.prefetch(initialIndex - PREFETCH_RADIUS, initialIndex + PREFETCH_RADIUS);
+                metrics.end(CalendarMetricsListener.Section.INIT, start);
+
+                mainHandler.post(new Runnable() {
+                    @Override public void run() {
+                        if (loadGeneration == generation) {
+                            callback.onModelLoaded(model);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /** Drops the result of any pending load. Must be called on the UI thread. */
+    void cancel() {
+        generation++;
+    }
+}
@@ -0,0 +1,548 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.content.Context;
+import android.os.Parcelable;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.example.luke.customcalendar.R;
+import com.example.luke.customcalendar.calendar.CalendarMetricsListener.Section;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.WeakHashMap;
+
+/**
+ * A {@link CalendarMainView} alternative built on {@link RecyclerView}. Months have stable ids, the
+ * next month is prefetched and bound between frames while scrolling, and selection changes only
+ * rebind the state of the cells they touched instead of whole months.
+ */
+public class CalendarRecyclerView extends RecyclerView {
+
+    /** Payload of a bind that only changes selection or highlight state. */
+    private static final Object PAYLOAD_CELL_STATE = new Object();
+    private static final int SHARED_POOL_SIZE = 6;
+    /** The view types of each shared pool, so that the calendars sharing it agree on them. */
+    private static final Map<RecycledViewPool, MonthViewTypes> SHARED_POOL_VIEW_TYPES =
+            new WeakHashMap<>();
+    /** How many days of each neighbour month a month's grid can show. */
+    private static final int NEIGHBOUR_MONTH_DAYS = 6;
+
+    private final MonthView.MonthViewListener monthViewListener = new CellClickedListener();
+    private final CalendarModelLoader modelLoader = new CalendarModelLoader();
+    private final CalendarMetrics metrics = new CalendarMetrics();
+    private final DayChangeTicker dayChangeTicker = new DayChangeTicker(this,
+            new DayChangeTicker.Listener() {
+                @Override public void onDayMayHaveChanged() {
+                    updateToday();
+                }
+            });
+    private final DayDecorations decorations = new DayDecorations(new DayDecorations.Listener() {
+        @Override public void onMonthDecorated(long monthId) {
+            final ViewHolder holder = findViewHolderForItemId(monthId);
+            if (holder != null) {
+                decorations.apply(((MonthViewHolder) holder).monthView, monthId);
+            }
+        }
+    });
+    private DefaultMonthLabelFormatter labelFormatter;
+    private CalendarModel model;
+    private final CalendarStyle style;
+    private final MonthRecyclerAdapter adapter;
+    private final LinearLayoutManager layoutManager;
+    private DayViewAdapter dayViewAdapter = new DefaultDayViewAdapter();
+    private MonthViewTypes viewTypes = new MonthViewTypes(Integer.MAX_VALUE);
+    private RecycledViewPool sharedPool;
+    /** The view types of {@link #sharedPool} this calendar has sized, from 0. */
+    private int sizedSharedTypes;
+
+    private String[] weekdayNames;
+    /** State restored before the calendar was initialized, applied by the next init. */
+    private CalendarSavedState pendingState;
+
+    public CalendarRecyclerView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        style = new CalendarStyle(context, attrs);
+        labelFormatter = new DefaultMonthLabelFormatter(context, style.displayAlwaysDigitNumbers);
+        model = new CalendarModel(labelFormatter);
+
+        layoutManager = new LinearLayoutManager(context);
+        // Lets the GapWorker create and bind the next month in the idle time between frames.
+        layoutManager.setItemPrefetchEnabled(true);
+        setLayoutManager(layoutManager);
+        adapter = new MonthRecyclerAdapter();
+        adapter.setHasStableIds(true);
+        setAdapter(adapter);
+        addOnScrollListener(new NeighbourMonthPrefetcher());
+        setBackgroundColor(style.backgroundColor);
+
+        weekdayNames = WeekdayNames.of(context.getString(R.string.day_name_format),
+                TimeZone.getDefault(), Locale.getDefault());
+    }
+
+    /**
+     * Shares pooled month views with other calendars, e.g. several calendars in a ViewPager. The
+     * calendars sharing a pool must use the same attributes and locale, and number the view types
+     * of their {@link DayViewAdapter} classes together.
+     */
+    public void setSharedMonthViewPool(RecycledViewPool pool) {
+        MonthViewTypes poolViewTypes = SHARED_POOL_VIEW_TYPES.get(pool);
+        if (poolViewTypes == null) {
+            poolViewTypes = new MonthViewTypes(Integer.MAX_VALUE);
+            SHARED_POOL_VIEW_TYPES.put(pool, poolViewTypes);
+        }
+        viewTypes = poolViewTypes;
+        sharedPool = pool;
+        sizedSharedTypes = 0;
+        sizeSharedPool();
+        setRecycledViewPool(pool);
+    }
+
+    /**
+     * Sizes the shared pool of each view type handed out so far. Types are allocated as adapter
+     * classes are met, by any calendar sharing the pool, so this runs again for each new one.
+     */
+    private void sizeSharedPool() {
+        for (; sizedSharedTypes < viewTypes.count(); sizedSharedTypes++) {
+            sharedPool.setMaxRecycledViews(sizedSharedTypes, SHARED_POOL_SIZE);
+        }
+    }
+
+    /**
+     * Disables the days matched by {@code rule}, e.g. {@link DateRule#weekends()} or fully booked
+     * days; null enables all days between the bounds again. Ranges can't span disabled days.
+     */
+    public void setDisabledDateRule(DateRule rule) {
+        model.setDisabledDateRule(rule);
+        adapter.notifyDataSetChanged();
+    }
+
+    /**
+     * Sets the days that can end a range but can't start one, e.g. no check-in on Sundays with
+     * {@code DateRule.daysOfWeek(Calendar.SUNDAY)}; null lets any selectable day start a range.
+     */
+    public void setNoRangeStartRule(DateRule rule) {
+        model.setNoRangeStartRule(rule);
+    }
+
+    /**
+     * Sets the adapter that creates the content of day cells. Months of each adapter class are
+     * pooled separately, so switching between adapters reuses their views once inflated.
+     */
+    public void setCustomDayView(DayViewAdapter dayViewAdapter) {
+        this.dayViewAdapter = dayViewAdapter;
+        adapter.notifyDataSetChanged();
+    }
+
+    public void setDaySelectListener(DaySelectListener daySelectListener) {
+        model.setDaySelectListener(daySelectListener);
+    }
+
+    /**
+     * Decorates day cells with data loaded by {@code provider} in the background, one month at a
+     * time. Pass null to stop decorating. Months drawn on canvas aren't decorated.
+     */
+    public void setDayDecorationProvider(DayDecorationProvider<?> provider) {
+        decorations.setProvider(provider);
+        redecorateVisibleMonths();
+    }
+
+    /** Reloads the decorations of all months, e.g. after the data behind them changed. */
+    public void invalidateDayDecorations() {
+        decorations.invalidate();
+        redecorateVisibleMonths();
+    }
+
+    /**
+     * Reports how long initializing, building, binding, measuring and laying out months and
+     * selecting dates take, and marks these sections in systrace. Pass null to stop.
+     */
+    public void setMetricsListener(CalendarMetricsListener metricsListener) {
+        metrics.setListener(metricsListener);
+    }
+
+    public void init(Date minDate, Date maxDate) {
+        init(minDate, maxDate, TimeZone.getDefault(), Locale.getDefault());
+    }
+
+    public void init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
+        modelLoader.cancel();
+        final long start = metrics.begin(Section.INIT);
+        model.init(minDate, maxDate, timeZone, locale);
+        metrics.end(Section.INIT, start);
+        applyLocale(timeZone, locale);
+        showInitialMonths();
+    }
+
+    public void initUnbounded() {
+        initUnbounded(TimeZone.getDefault(), Locale.getDefault());
+    }
+
+    /**
+     * Initializes the calendar without bounds: every month from 1601 to 2400 can be scrolled to,
+     * starting around today. Months are built as they're shown and only the most recent ones are
+     * kept, see {@link #setMaxCachedMonths}.
+     */
+    public void initUnbounded(TimeZone timeZone, Locale locale) {
+        modelLoader.cancel();
+        final long start = metrics.begin(Section.INIT);
+        model.initUnbounded(timeZone, locale);
+        metrics.end(Section.INIT, start);
+        applyLocale(timeZone, locale);
+        showInitialMonths();
+    }
+
+    /**
+     * Sets how many built months are kept in memory, 24
+     * by default. Months far from the viewport are evicted first and rebuilt when scrolled back to.
+     */
+    public void setMaxCachedMonths(int maxCachedMonths) {
+        model.setMaxCachedMonths(maxCachedMonths);
+    }
+
+    public MonthCacheStats getMonthCacheStats() {
+        return model.getMonthCacheStats();
+    }
+
+    public void initAsync(Date minDate, Date maxDate, CalendarInitListener listener) {
+        initAsync(minDate, maxDate, TimeZone.getDefault(), Locale.getDefault(), listener);
+    }
+
+    /**
+     * Like {@link #init(Date, Date, TimeZone, Locale)}, but builds the months on a background
+     * thread. The calendar shows no months until the ones around the initial month are ready.
+     * {@code listener} is then called on the UI thread, after which dates can be selected and
+     * highlighted.
+     */
+    public void initAsync(Date minDate, Date maxDate, final TimeZone timeZone, final Locale locale,
+                          final CalendarInitListener listener) {
+        final DefaultMonthLabelFormatter nextLabelFormatter =
+                new DefaultMonthLabelFormatter(getContext(), style.displayAlwaysDigitNumbers);
+        nextLabelFormatter.setLocale(locale);
+        nextLabelFormatter.setTimeZone(timeZone);
+        final CalendarModel nextModel = new CalendarModel(nextLabelFormatter);
+        nextModel.setMaxCachedMonths(model.getMonthCacheStats().getMaxSize());
+        nextModel.setDisabledDateRule(model.getDisabledDateRule());
+        nextModel.setNoRangeStartRule(model.getNoRangeStartRule());
+        modelLoader.load(nextModel, minDate, maxDate, timeZone, locale, metrics,
+                new CalendarModelLoader.Callback() {
+                    @Override public void onModelLoaded(CalendarModel loadedModel) {
+                        loadedModel.setDaySelectListener(model.getDaySelectListener());
+                        // The rules may have changed while loading.
+                        loadedModel.setDisabledDateRule(model.getDisabledDateRule());
+                        loadedModel.setNoRangeStartRule(model.getNoRangeStartRule());
+                        model = loadedModel;
+                        labelFormatter = nextLabelFormatter;
+                        applyLocale(timeZone, locale);
+                        showInitialMonths();
+                        if (listener != null) {
+                            listener.onInitialized();
+                        }
+                    }
+                });
+
+        // Show no months, rather than the previous ones, while loading.
+        final CalendarModel placeholder = new CalendarModel(labelFormatter);
+        placeholder.setDaySelectListener(model.getDaySelectListener());
+        placeholder.setDisabledDateRule(model.getDisabledDateRule());
+        placeholder.setNoRangeStartRule(model.getNoRangeStartRule());
+        placeholder.setMaxCachedMonths(nextModel.getMonthCacheStats().getMaxSize());
+        model = placeholder;
+        adapter.notifyDataSetChanged();
+    }
+
+    /**
+     * Switches to {@code locale} and {@code timeZone} without re-initializing: the selection,
+     * highlights and bounds stay on the same dates, month titles are formatted again and day names
+     * come from a cache shared per locale. Month grids are only rebuilt if the first day of the
+     * week changes.
+     */
+    public void setLocale(Locale locale, TimeZone timeZone) {
+        model.setLocale(timeZone, locale);
+        applyLocale(timeZone, locale);
+        adapter.notifyDataSetChanged();
+    }
+
+    private void applyLocale(TimeZone timeZone, Locale locale) {
+        // Decorations are loaded for the first day of each month, which depends on the time zone.
+        decorations.invalidate();
+        // Make sure that all calendar instances use the same time zone and locale.
+        weekdayNames = WeekdayNames.of(getContext().getString(R.string.day_name_format), timeZone,
+                locale);
+        labelFormatter.setLocale(locale);
+        labelFormatter.setTimeZone(timeZone);
+        if (model.isInitialized()) {
+            dayChangeTicker.scheduleAt(model.getNextDayMillis());
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        dayChangeTicker.start();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        dayChangeTicker.stop();
+        super.onDetachedFromWindow();
+    }
+
+    /** Moves the today state to the current day if it changed, rebinding only the affected cells. */
+    private void updateToday() {
+        if (!model.isInitialized()) {
+            return;
+        }
+        if (model.updateToday()) {
+            notifyChangedCells(NEIGHBOUR_MONTH_DAYS);
+        }
+        dayChangeTicker.scheduleAt(model.getNextDayMillis());
+    }
+
+    private void showInitialMonths() {
+        adapter.notifyDataSetChanged();
+        final int initialIndex = model.getInitialMonthIndex();
+        if (initialIndex >= 0) {
+            scrollToPosition(initialIndex);
+        }
+        restorePendingState();
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        final Parcelable superState = super.onSaveInstanceState();
+        final int firstPosition = layoutManager.findFirstVisibleItemPosition();
+        final View firstView = layoutManager.findViewByPosition(firstPosition);
+        final long firstVisibleMonthId = firstView != null && model.isInitialized()
+                ? model.getMonthId(firstPosition) : CalendarSavedState.NO_MONTH;
+        return CalendarSavedState.of(superState, model, pendingState, firstVisibleMonthId,
+                firstView != null ? firstView.getTop() : 0);
+    }
+
+    /**
+     * Restores the selection, highlights and scroll position without rebuilding any month. If the
+     * calendar isn't initialized yet, e.g. while {@link #initAsync} is loading, they're restored
+     * by the next init.
+     */
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof CalendarSavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        pendingState = (CalendarSavedState) state;
+        super.onRestoreInstanceState(pendingState.getSuperState());
+        if (model.isInitialized()) {
+            restorePendingState();
+        }
+    }
+
+    private void restorePendingState() {
+        if (pendingState == null) {
+            return;
+        }
+        final CalendarSavedState state = pendingState;
+        pendingState = null;
+        state.restore(model);
+        adapter.notifyDataSetChanged();
+        final int monthIndex = state.getFirstVisibleMonthIndex(model);
+        if (monthIndex >= 0) {
+            layoutManager.scrollToPositionWithOffset(monthIndex, state.firstVisibleMonthTop);
+        }
+    }
+
+    /**
+     * Highlights the given dates in addition to the ones already highlighted. Dates outside the
+     * months shown by the calendar are ignored. Highlights are cleared by {@link #init}.
+     */
+    public void highlightDates(Collection<Date> dates) {
+        notifyMonthStatesChanged(model.highlight(dates));
+    }
+
+    public void unhighlightDates(Collection<Date> dates) {
+        notifyMonthStatesChanged(model.unhighlight(dates));
+    }
+
+    public void clearHighlightedDates() {
+        notifyMonthStatesChanged(model.clearHighlights());
+    }
+
+    public boolean selectDate(Date date) {
+        return selectDate(date, false);
+    }
+
+    public boolean selectDate(Date date, boolean smoothScroll) {
+        MonthCellDescriptor cell = model.getSelectableCell(date);
+        if (cell == null) {
+            return false;
+        }
+        if (!doSelectDate(cell)) {
+            return false;
+        }
+        final int monthIndex = model.monthIndexOf(cell.getDay());
+        if (smoothScroll) {
+            smoothScrollToPosition(monthIndex);
+        } else {
+            scrollToPosition(monthIndex);
+        }
+        return true;
+    }
+
+    private boolean doSelectDate(MonthCellDescriptor cell) {
+        final long start = metrics.begin(Section.SELECT);
+        if (!model.select(cell)) {
+            metrics.end(Section.SELECT, start);
+            return false;
+        }
+
+        notifyChangedCells(0);
+        metrics.end(Section.SELECT, start);
+        return true;
+    }
+
+    /**
+     * Gives a state-only bind to the months covering the model's {@link CellChanges}, widened by
+     * {@code paddingDays} on both sides; the other months are left alone.
+     */
+    private void notifyChangedCells(int paddingDays) {
+        final CellChanges changes = model.getCellChanges();
+        for (int i = 0, size = changes.size(); i < size; i++) {
+            final int firstMonth =
+                    Math.max(0, model.monthIndexOf(changes.getFromDay(i) - paddingDays));
+            final int lastMonth = Math.min(model.getMonthCount() - 1,
+                    model.monthIndexOf(changes.getToDay(i) + paddingDays));
+            if (firstMonth <= lastMonth) {
+                adapter.notifyItemRangeChanged(firstMonth, lastMonth - firstMonth + 1,
+                        PAYLOAD_CELL_STATE);
+            }
+        }
+        changes.clear();
+    }
+
+    private void notifyMonthStatesChanged(BitSet monthIndices) {
+        for (int i = monthIndices.nextSetBit(0); i >= 0; i = monthIndices.nextSetBit(i + 1)) {
+            adapter.notifyItemChanged(i, PAYLOAD_CELL_STATE);
+        }
+    }
+
+    private class CellClickedListener implements MonthView.MonthViewListener {
+        @Override public void handleClick(MonthCellDescriptor cell) {
+            doSelectDate(cell);
+        }
+    }
+
+    /**
+     * Builds the grids of the months on either side of the visible ones once scrolling settles, so
+     * that binding them later only touches views.
+     */
+    private class NeighbourMonthPrefetcher extends OnScrollListener {
+        @Override public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+            if (newState != SCROLL_STATE_IDLE) {
+                return;
+            }
+            prefetch(layoutManager.findFirstVisibleItemPosition() - 1);
+            prefetch(layoutManager.findLastVisibleItemPosition() + 1);
+        }
+
+        private void prefetch(int monthIndex) {
+            model.prefetch(monthIndex, monthIndex);
+        }
+    }
+
+    /** Binds a month, timing the build of its grid separately from the bind. */
+    private void bindMonth(MonthRenderer monthView, int position) {
+        monthView.setMetrics(metrics);
+        monthView.setWeekdayNames(weekdayNames);
+        if (metrics.isEnabled() && !model.isMonthBuilt(position)) {
+            final long buildStart = metrics.begin(Section.BUILD_MONTH);
+            model.getMonthCells(position);
+            metrics.end(Section.BUILD_MONTH, buildStart);
+        }
+        final long start = metrics.begin(Section.BIND_MONTH);
+        monthView.init(model.getMonth(position), model.getMonthCells(position),
+                model.getSelection(), model.getHighlightedDays());
+        metrics.end(Section.BIND_MONTH, start);
+        decorateMonth(monthView, position);
+    }
+
+    private void decorateMonth(MonthRenderer monthView, int position) {
+        if (decorations.isEnabled() && monthView.canDecorate()) {
+            decorations.bind(monthView, model.getMonthId(position),
+                    model.getMonth(position).getDate(), model.getDayCount(position));
+        }
+    }
+
+    private void redecorateVisibleMonths() {
+        for (int i = 0, childCount = getChildCount(); i < childCount; i++) {
+            final MonthViewHolder holder = (MonthViewHolder) getChildViewHolder(getChildAt(i));
+            final int position = holder.getAdapterPosition();
+            if (position != NO_POSITION) {
+                decorateMonth(holder.monthView, position);
+            }
+        }
+    }
+
+    private static class MonthViewHolder extends ViewHolder {
+        final MonthRenderer monthView;
+
+        MonthViewHolder(MonthRenderer monthView) {
+            super((View) monthView);
+            this.monthView = monthView;
+        }
+    }
+
+    private class MonthRecyclerAdapter extends Adapter<MonthViewHolder> {
+
+        @Override
+        public MonthViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new MonthViewHolder(style.createMonthView(parent,
+                    LayoutInflater.from(parent.getContext()), weekdayNames, monthViewListener,
+                    dayViewAdapter));
+        }
+
+        @Override
+        public void onBindViewHolder(MonthViewHolder holder, int position) {
+            // Pooled views may come from another calendar sharing the pool.
+            holder.monthView.setMonthViewListener(monthViewListener);
+            bindMonth(holder.monthView, position);
+        }
+
+        @Override
+        public void onBindViewHolder(MonthViewHolder holder, int position, List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                onBindViewHolder(holder, position);
+            } else {
+                holder.monthView.bindCellStates(model.getSelection(), model.getHighlightedDays());
+            }
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            final int type = viewTypes.of(style, dayViewAdapter);
+            if (sharedPool != null && type >= sizedSharedTypes) {
+                sizeSharedPool();
+            }
+            return type;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return model.getMonthId(position);
+        }
+
+        @Override
+        public int getItemCount() {
+            return model.getMonthCount();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import static android.view.View.MeasureSpec.makeMeasureSpec;
 public class CalendarRowView extends ViewGroup implements View.OnClickListener{
 
     private boolean isHeaderRow;
+    private boolean fixedCellGeometry;
     private MonthView.MonthViewListener listener;
 
     public CalendarRowView(Context context, AttributeSet attrs) {
@@ -67,6 +68,11 @@ public class CalendarRowView extends ViewGroup implements View.OnClickListener{
         }
     }
 
+    /** Makes cells exactly as tall as the row; see {@link CalendarGridView#setFixedCellGeometry}. */
+    public void setFixedCellGeometry(boolean fixedCellGeometry) {
+        this.fixedCellGeometry = fixedCellGeometry;
+    }
+
     public void setListener(MonthView.MonthViewListener listener) {
         this.listener = listener;
     }
@@ -78,6 +84,11 @@ public class CalendarRowView extends ViewGroup implements View.OnClickListener{
 
     @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         final int totalWidth = MeasureSpec.getSize(widthMeasureSpec);
+        if (fixedCellGeometry && !isHeaderRow
+                && MeasureSpec.getMode(heightMeasureSpec) == EXACTLY) {
+            measureFixedCells(totalWidth, MeasureSpec.getSize(heightMeasureSpec));
+            return;
+        }
         int rowHeight = 0;
         int cellHeightSpec = makeMeasureSpec(totalWidth, AT_MOST);
         for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
@@ -101,6 +112,21 @@ public class CalendarRowView extends ViewGroup implements View.OnClickListener{
         setMeasuredDimension(widthWithPadding, heightWithPadding);
     }
 
+    /** Measures only the cells whose size changed or that requested a layout. */
+    private void measureFixedCells(int totalWidth, int rowHeight) {
+        final int cellHeight = rowHeight - getPaddingTop() - getPaddingBottom();
+        final int cellHeightSpec = makeMeasureSpec(cellHeight, EXACTLY);
+        for (int c = 0, numChildren = getChildCount(); c < numChildren; c++) {
+            final View child = getChildAt(c);
+            final int cellWidth = ((c + 1) * totalWidth) / 7 - (c * totalWidth) / 7;
+            if (child.getMeasuredWidth() != cellWidth || child.getMeasuredHeight() != cellHeight
+                    || child.isLayoutRequested()) {
+                child.measure(makeMeasureSpec(cellWidth, EXACTLY), cellHeightSpec);
+            }
+        }
+        setMeasuredDimension(totalWidth + getPaddingLeft() + getPaddingRight(), rowHeight);
+    }
+
     @Override protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         int cellHeight = bottom - top;
         int width = right - left;
@@ -0,0 +1,92 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+
+/**
+ * The instance state of a calendar: its selection, highlights and scroll position as epoch days and
+ * a month id. Nothing per cell or per month is saved, so the state is as small for a calendar of
+ * decades as for one of a month.
+ */
+class CalendarSavedState extends View.BaseSavedState {
+
+    static final long NO_MONTH = Long.MIN_VALUE;
+
+    final int firstSelectedDay;
+    final int lastSelectedDay;
+    final int[] highlightedDays;
+    /** The id of the first visible month and the offset of its top, or {@link #NO_MONTH}. */
+    final long firstVisibleMonthId;
+    final int firstVisibleMonthTop;
+
+    CalendarSavedState(Parcelable superState, int firstSelectedDay, int lastSelectedDay,
+                       int[] highlightedDays, long firstVisibleMonthId, int firstVisibleMonthTop) {
+        super(superState);
+        this.firstSelectedDay = firstSelectedDay;
+        this.lastSelectedDay = lastSelectedDay;
+        this.highlightedDays = highlightedDays;
+        this.firstVisibleMonthId = firstVisibleMonthId;
+        this.firstVisibleMonthTop = firstVisibleMonthTop;
+    }
+
+    /** Saves {@code model}'s state, or the state still waiting to be restored if there is one. */
+    static CalendarSavedState of(Parcelable superState, CalendarModel model,
+                                 CalendarSavedState pendingState, long firstVisibleMonthId,
+                                 int firstVisibleMonthTop) {
+        if (pendingState != null) {
+            return new CalendarSavedState(superState, pendingState.firstSelectedDay,
+                    pendingState.lastSelectedDay, pendingState.highlightedDays,
+                    pendingState.firstVisibleMonthId, pendingState.firstVisibleMonthTop);
+        }
+        final DateSelection selection = model.getSelection();
+        return new CalendarSavedState(superState, selection.getFirst(), selection.getLast(),
+                model.getHighlightedDays().toArray(), firstVisibleMonthId, firstVisibleMonthTop);
+    }
+
+    private CalendarSavedState(Parcel in) {
+        super(in);
+        firstSelectedDay = in.readInt();
+        lastSelectedDay = in.readInt();
+        highlightedDays = in.createIntArray();
+        firstVisibleMonthId = in.readLong();
+        firstVisibleMonthTop = in.readInt();
+    }
+
+    /** Applies the selection and highlights to {@code model}; months pick them up when bound. */
+    void restore(CalendarModel model) {
+        model.restore(firstSelectedDay, lastSelectedDay, highlightedDays);
+    }
+
+    /** Returns the index of the first visible month in {@code model}, or -1 if it isn't shown. */
+    int getFirstVisibleMonthIndex(CalendarModel model) {
+        if (firstVisibleMonthId == NO_MONTH) {
+            return -1;
+        }
+        final int monthIndex = model.getMonthIndex(firstVisibleMonthId);
+        return model.isValidMonthIndex(monthIndex) ? monthIndex : -1;
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        super.writeToParcel(out, flags);
+        out.writeInt(firstSelectedDay);
+        out.writeInt(lastSelectedDay);
+        out.writeIntArray(highlightedDays);
+        out.writeLong(firstVisibleMonthId);
+        out.writeInt(firstVisibleMonthTop);
+    }
+
+    public static final Parcelable.Creator<CalendarSavedState> CREATOR =
+            new Parcelable.Creator<CalendarSavedState>() {
+                @Override
+                public CalendarSavedState createFromParcel(Parcel in) {
+                    return new CalendarSavedState(in);
+                }
+
+                @Override
+                public CalendarSavedState[] newArray(int size) {
+                    return new CalendarSavedState[size];
+                }
+            };
+}
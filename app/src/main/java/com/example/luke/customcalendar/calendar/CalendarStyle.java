@@ -0,0 +1,74 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import com.example.luke.customcalendar.R;
+
+
+/** The {@code CalendarPickerView} attributes of a calendar, used to create its {@link MonthView}s. */
+class CalendarStyle {
+
+    final int backgroundColor;
+    final int dayBackgroundResId;
+    final int dayTextColorResId;
+    final int titleTextStyle;
+    final boolean displayHeader;
+    final int headerTextColor;
+    final boolean displayDayNamesHeaderRow;
+    final boolean displayAlwaysDigitNumbers;
+    final boolean drawMonthOnCanvas;
+    final boolean fixedCellGeometry;
+
+    CalendarStyle(Context context, AttributeSet attrs) {
+        Resources res = context.getResources();
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.CalendarPickerView);
+        backgroundColor = a.getColor(R.styleable.CalendarPickerView_android_background,
+                res.getColor(R.color.calendar_bg));
+
+        dayBackgroundResId = a.getResourceId(R.styleable.CalendarPickerView_tsquare_dayBackground,
+                R.drawable.calendar_bg_selector);
+        dayTextColorResId = a.getResourceId(R.styleable.CalendarPickerView_tsquare_dayTextColor,
+                R.color.calendar_text_selector);
+        titleTextStyle = a.getResourceId(R.styleable.CalendarPickerView_tsquare_titleTextStyle,
+                R.style.CalendarTitle);
+        displayHeader = a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayHeader, true);
+        headerTextColor = a.getColor(R.styleable.CalendarPickerView_tsquare_headerTextColor,
+                res.getColor(R.color.calendar_text_active));
+        displayDayNamesHeaderRow =
+                a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayDayNamesHeaderRow, true);
+        displayAlwaysDigitNumbers =
+                a.getBoolean(R.styleable.CalendarPickerView_tsquare_displayAlwaysDigitNumbers, false);
+        drawMonthOnCanvas =
+                a.getBoolean(R.styleable.CalendarPickerView_tsquare_drawMonthOnCanvas, false);
+        fixedCellGeometry =
+                a.getBoolean(R.styleable.CalendarPickerView_tsquare_fixedCellGeometry, false);
+
+        a.recycle();
+    }
+
+    /**
+     * Creates a view for one month. The returned {@link MonthRenderer} is either a {@link MonthView}
+     * or, when drawing on canvas, a {@link MonthCanvasView} that ignores {@code dayViewAdapter}.
+     */
+    MonthRenderer createMonthView(ViewGroup parent, LayoutInflater inflater,
+                                  String[] weekdayNames, MonthView.MonthViewListener listener,
+                                  DayViewAdapter dayViewAdapter) {
+        if (drawMonthOnCanvas) {
+            MonthCanvasView view = new MonthCanvasView(parent.getContext(), weekdayNames,
+                    dayBackgroundResId, dayTextColorResId, titleTextStyle, displayHeader,
+                    headerTextColor, displayDayNamesHeaderRow);
+            view.setMonthViewListener(listener);
+            return view;
+        }
+        MonthView view = MonthView.create(parent, inflater, weekdayNames, listener,
+                dayBackgroundResId, dayTextColorResId, titleTextStyle, displayHeader,
+                headerTextColor, displayDayNamesHeaderRow, dayViewAdapter);
+        view.setFixedCellGeometry(fixedCellGeometry);
+        return view;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.luke.customcalendar.calendar;
+
+import com.example.luke.customcalendar.R;
+
+import java.util.Arrays;
+
+/**
+ * The drawable states of day cells, shared by {@link CalendarCellView} and {@link MonthCanvasView}
+ * so that a day looks the same whichever draws it. A cell is described by its {@link CellFlags}
+ * plus the flags below.
+ */
+final class CellStates {
+
+    static final int FLAG_PRESSED = CellFlags.FIRST_FREE_BIT;
+    /**
+     * Adds the states a {@link android.view.View} otherwise keeps itself: enabled for selectable
+     * cells, selected and pressed. Without it, {@link CellFlags#SELECTED} and
+     * {@link #FLAG_PRESSED} are ignored.
+     */
+    static final int FLAG_VIEW_STATES = CellFlags.FIRST_FREE_BIT << 1;
+
+    /** Drawable state sets by flags, shared by all cells. */
+    private static final int[][] STATE_SETS = new int[FLAG_VIEW_STATES << 1][];
+
+    private CellStates() {
+    }
+
+    /** Returns the drawable state set of a cell with these flags. */
+    static int[] stateSetOf(int flags) {
+        int[] stateSet = STATE_SETS[flags];
+        if (stateSet == null) {
+            final int[] states = new int[9];
+            int size = 0;
+            if ((flags & CellFlags.SELECTABLE) != 0) {
+                states[size++] = R.attr.tsquare_state_selectable;
+            }
+            if ((flags & CellFlags.CURRENT_MONTH) != 0) {
+                states[size++] = R.attr.tsquare_state_current_month;
+            }
+            if ((flags & CellFlags.TODAY) != 0) {
+                states[size++] = R.attr.tsquare_state_today;
+            }
+            if ((flags & CellFlags.HIGHLIGHTED) != 0) {
+                states[size++] = R.attr.tsquare_state_highlighted;
+            }
+            switch (CellFlags.rangeStateOf(flags)) {
+                case FIRST:
+                    states[size++] = R.attr.tsquare_state_range_first;
+                    break;
+                case MIDDLE:
+                    states[size++] = R.attr.tsquare_state_range_middle;
+                    break;
+                case LAST:
+                    states[size++] = R.attr.tsquare_state_range_last;
+                    break;
+                default:
+                    break;
+            }
+            if ((flags & FLAG_VIEW_STATES) != 0) {
+                // Like CalendarCellView.setState, only selectable cells are enabled.
+                if ((flags & CellFlags.SELECTABLE) != 0) {
+                    states[size++] = android.R.attr.state_enabled;
+                }
+                if ((flags & CellFlags.SELECTED) != 0) {
+                    states[size++] = android.R.attr.state_selected;
+                }
+                if ((flags & FLAG_PRESSED) != 0) {
+                    states[size++] = android.R.attr.state_pressed;
+                }
+            }
+            stateSet = Arrays.copyOf(states, size);
+            STATE_SETS[flags] = stateSet;
+        }
+        return stateSet;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.view.View;
+
+/**
+ * Tells a calendar view when the day may have changed: at the time it scheduled, normally the next
+ * midnight, and whenever the device's date, time or time zone is changed. Only runs between
+ * {@link #start()} and {@link #stop()}, i.e. while the view is attached.
+ */
+final class DayChangeTicker {
+
+    interface Listener {
+        /** Called on the UI thread; the listener checks the day and reschedules. */
+        void onDayMayHaveChanged();
+    }
+
+    private final View view;
+    private final Listener listener;
+    private final Runnable tick = new Runnable() {
+        @Override public void run() {
+            listener.onDayMayHaveChanged();
+        }
+    };
+    private final BroadcastReceiver timeChangeReceiver = new BroadcastReceiver() {
+        @Override public void onReceive(Context context, Intent intent) {
+            listener.onDayMayHaveChanged();
+        }
+    };
+    private boolean started;
+
+    DayChangeTicker(View view, Listener listener) {
+        this.view = view;
+        this.listener = listener;
+    }
+
+    void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_DATE_CHANGED);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        view.getContext().registerReceiver(timeChangeReceiver, filter);
+        // The day may have changed while stopped.
+        listener.onDayMayHaveChanged();
+    }
+
+    void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        view.getContext().unregisterReceiver(timeChangeReceiver);
+        view.removeCallbacks(tick);
+    }
+
+    /** Schedules the next check at {@code millis} since the epoch, replacing any scheduled one. */
+    void scheduleAt(long millis) {
+        view.removeCallbacks(tick);
+        if (started) {
+            // The delay counts uptime, which stops in deep sleep; ACTION_DATE_CHANGED covers that.
+            view.postDelayed(tick, Math.max(0, millis - System.currentTimeMillis()));
+        }
+    }
+}
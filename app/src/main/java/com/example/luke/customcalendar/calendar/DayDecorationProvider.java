@@ -0,0 +1,30 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Supplies per-day data shown in day cells, such as prices, event dots or availability. Data is
+ * loaded in the background, one month at a time, and cached; cells are decorated once their month
+ * has loaded, without rebinding anything else.
+ *
+ * @param <T> the decoration of one day
+ */
+public interface DayDecorationProvider<T> {
+
+    /**
+     * Loads the decorations of a month. Called on a background thread.
+     *
+     * @param firstDayOfMonth midnight of the first day of the month, in the calendar's time zone
+     * @param dayCount the number of days in the month
+     * @return the decoration of each day, indexed by day of month minus one; null or shorter lists
+     * leave the remaining days undecorated
+     */
+    List<T> loadMonth(Date firstDayOfMonth, int dayCount);
+
+    /**
+     * Shows {@code decoration} in {@code cellView}, or removes any decoration if it's null. Called
+     * on the UI thread for the cells of a month when it's bound and when its decorations arrive.
+     */
+    void decorate(CalendarCellView cellView, T decoration);
+}
@@ -0,0 +1,139 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Loads the decorations of a {@link DayDecorationProvider} one month per request on a background
+ * thread, and keeps the recently used months. All methods must be called on the UI thread.
+ */
+final class DayDecorations {
+
+    interface Listener {
+        /** Called when the decorations of month {@code monthId} arrived and can be applied. */
+        void onMonthDecorated(long monthId);
+    }
+
+    private static final String TAG = "DayDecorations";
+    private static final int MAX_CACHED_MONTHS = 24;
+
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "DayDecorations");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+    private final Map<Long, List<Object>> cache =
+            new LinkedHashMap<Long, List<Object>>(16, 0.75f, true) {
+                @Override protected boolean removeEldestEntry(Map.Entry<Long, List<Object>> eldest) {
+                    return size() > MAX_CACHED_MONTHS;
+                }
+            };
+    private final Set<Long> pendingMonths = new HashSet<>();
+    private DayDecorationProvider<Object> provider;
+    private int generation;
+
+    DayDecorations(Listener listener) {
+        this.listener = listener;
+    }
+
+    @SuppressWarnings("unchecked")
+    void setProvider(DayDecorationProvider<?> provider) {
+        this.provider = (DayDecorationProvider<Object>) provider;
+        invalidate();
+    }
+
+    boolean isEnabled() {
+        return provider != null;
+    }
+
+    /** Drops all loaded decorations and ignores the loads in flight. */
+    void invalidate() {
+        generation++;
+        cache.clear();
+        pendingMonths.clear();
+    }
+
+    /**
+     * Decorates a month view that was just bound: with the cached decorations if there are any,
+     * otherwise clears what a recycled view may still show and requests the month.
+     */
+    void bind(MonthRenderer monthView, long monthId, Date firstDayOfMonth, int dayCount) {
+        if (provider == null) {
+            return;
+        }
+        final List<Object> decorations = cache.get(monthId);
+        monthView.decorate(provider, decorations);
+        if (decorations == null) {
+            request(monthId, firstDayOfMonth, dayCount);
+        }
+    }
+
+    /** Applies the decorations of {@code monthId}, if loaded, to a view showing that month. */
+    void apply(MonthRenderer monthView, long monthId) {
+        final List<Object> decorations = cache.get(monthId);
+        if (provider != null && decorations != null) {
+            monthView.decorate(provider, decorations);
+        }
+    }
+
+    private void request(final long monthId, final Date firstDayOfMonth, final int dayCount) {
+        if (!pendingMonths.add(monthId)) {
+            return;
+        }
+        final int requestGeneration = generation;
+        final DayDecorationProvider<Object> requestProvider = provider;
+        EXECUTOR.execute(new Runnable() {
+            @Override public void run() {
+                try {
+                    loaded(requestProvider.loadMonth(firstDayOfMonth, dayCount));
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Failed to load the decorations of " + firstDayOfMonth, e);
+                    failed();
+                }
+            }
+
+            private void loaded(final List<Object> decorations) {
+                mainHandler.post(new Runnable() {
+                    @Override public void run() {
+                        if (requestGeneration != generation) {
+                            return;
+                        }
+                        pendingMonths.remove(monthId);
+                        cache.put(monthId, decorations != null
+                                ? decorations : Collections.<Object>emptyList());
+                        listener.onMonthDecorated(monthId);
+                    }
+                });
+            }
+
+            /** Forgets the request, so that the month is requested again the next time it's bound. */
+            private void failed() {
+                mainHandler.post(new Runnable() {
+                    @Override public void run() {
+                        if (requestGeneration == generation) {
+                            pendingMonths.remove(monthId);
+                        }
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.content.Context;
+import android.text.format.DateUtils;
+
+import com.example.luke.customcalendar.R;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Formats month titles. Each calendar has its own formatter, which keeps the labels of the months
+ * it formatted last in a small table by month, so months that get rebuilt after eviction or
+ * rebinding aren't formatted again. The table is emptied when the locale or time zone changes.
+ */
+class DefaultMonthLabelFormatter implements MonthLabelFormatter {
+
+    /** A power of two, comfortably more than the months kept built by default. */
+    private static final int LABEL_SLOTS = 64;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final Context context;
+    private final boolean displayAlwaysDigitNumbers;
+    private final StringBuilder monthBuilder = new StringBuilder(50);
+    private Locale locale = Locale.getDefault();
+    private TimeZone timeZone = TimeZone.getDefault();
+    private Formatter monthFormatter = new Formatter(monthBuilder, locale);
+    private SimpleDateFormat monthNameFormat;
+    private SimpleDateFormat yearFormat;
+    /** The time of the first day of each slot's month, and its label. */
+    private final long[] labelTimes = new long[LABEL_SLOTS];
+    private final String[] labels = new String[LABEL_SLOTS];
+
+    /**
+     * Creates a formatter. With {@code displayAlwaysDigitNumbers}, years are written with Western
+     * digits whatever the locale.
+     */
+    DefaultMonthLabelFormatter(Context context, boolean displayAlwaysDigitNumbers) {
+        this.context = context;
+        this.displayAlwaysDigitNumbers = displayAlwaysDigitNumbers;
+        Arrays.fill(labelTimes, NO_TIME);
+    }
+
+    void setLocale(Locale locale) {
+        if (locale.equals(this.locale)) {
+            return;
+        }
+        this.locale = locale;
+        monthFormatter = new Formatter(monthBuilder, locale);
+        onConfigurationChanged();
+    }
+
+    /** Sets the time zone of the dates passed to {@link #format}. */
+    void setTimeZone(TimeZone timeZone) {
+        if (timeZone.equals(this.timeZone)) {
+            return;
+        }
+        this.timeZone = timeZone;
+        onConfigurationChanged();
+    }
+
+    private void onConfigurationChanged() {
+        monthNameFormat = null;
+        yearFormat = null;
+        Arrays.fill(labelTimes, NO_TIME);
+        Arrays.fill(labels, null);
+    }
+
+    @Override
+    public String format(Date date) {
+        final long time = date.getTime();
+        // Consecutive months start about a month apart, so their days spread over the slots.
+        final int slot = (int) (time / DateUtils.DAY_IN_MILLIS) & (LABEL_SLOTS - 1);
+        if (labelTimes[slot] != time) {
+            labels[slot] = formatLabel(date);
+            labelTimes[slot] = time;
+        }
+        return labels[slot];
+    }
+
+    private String formatLabel(Date date) {
+        int flags = DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_YEAR
+                | DateUtils.FORMAT_NO_MONTH_DAY;
+
+        String dateFormatted;
+        if (displayAlwaysDigitNumbers) {
+            if (monthNameFormat == null) {
+                monthNameFormat = new SimpleDateFormat(context
+                        .getString(R.string.month_only_name_format), locale);
+                monthNameFormat.setTimeZone(timeZone);
+                yearFormat = new SimpleDateFormat(context
+                        .getString(R.string.year_only_format), Locale.ENGLISH);
+                yearFormat.setTimeZone(timeZone);
+            }
+            dateFormatted = monthNameFormat.format(date) + " " + yearFormat.format(date);
+        } else {
+            // Format date using the new Locale
+            dateFormatted = DateUtils.formatDateRange(context, monthFormatter,
+                    date.getTime(), date.getTime(), flags, timeZone.getID()).toString();
+        }
+        // Call setLength(0) on StringBuilder passed to the Formatter constructor to not accumulate
+        // the results
+        monthBuilder.setLength(0);
+
+        return dateFormatted;
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.luke.customcalendar.calendar;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.View;
+
+import com.example.luke.customcalendar.R;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws a whole month, title and day names included, on a single canvas. Cells are located by
+ * arithmetic instead of being laid out as child views, and their backgrounds come from the day
+ * background drawable put in each cell's state in turn. Custom {@link DayViewAdapter}s are not
+ * supported in this mode.
+ */
+class MonthCanvasView extends View implements MonthRenderer {
+
+    // Day numbers are always shown with Western digits, like in MonthView.
+    private static final String[] DAY_NUMBERS = DayNumbers.forLocale(Locale.US);
+
+    private final TextPaint titlePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint headerPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final TextPaint dayPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Drawable dayBackground;
+    private final ColorStateList dayTextColors;
+    private String[] dayNames;
+    private final int titleHeight;
+    private final int titleBaseline;
+    private final int headerHeight;
+
+    private final MonthCellDescriptor[] cells = new MonthCellDescriptor[6 * 7];
+    private final int[] cellFlags = new int[6 * 7];
+    private MonthView.MonthViewListener monthViewListener;
+    private CalendarMetrics metrics;
+    private String title;
+    private int numRows;
+    private int pressedIndex = -1;
+
+    MonthCanvasView(Context context, String[] weekdayNames,
+                    int dayBackgroundResId, int dayTextColorResId, int titleTextStyle,
+                    boolean displayHeader, int headerTextColor,
+                    boolean displayDayNamesHeaderRowView) {
+        super(context);
+        final Resources res = getResources();
+
+        // obtainStyledAttributes needs these sorted by attribute id.
+        final TypedArray a = context.obtainStyledAttributes(titleTextStyle, new int[] {
+                android.R.attr.textSize, android.R.attr.textStyle, android.R.attr.textColor,
+                android.R.attr.paddingTop, android.R.attr.paddingBottom
+        });
+        titlePaint.setTextSize(a.getDimension(0, res.getDimension(R.dimen.calendar_text_medium)));
+        titlePaint.setTypeface(Typeface.defaultFromStyle(a.getInt(1, Typeface.BOLD)));
+        titlePaint.setColor(a.getColor(2, headerTextColor));
+        titlePaint.setTextAlign(Paint.Align.CENTER);
+        final int titlePaddingTop = a.getDimensionPixelSize(3, 0);
+        final int titlePaddingBottom = a.getDimensionPixelSize(4, 0);
+        a.recycle();
+        final Paint.FontMetricsInt titleMetrics = titlePaint.getFontMetricsInt();
+        titleBaseline = titlePaddingTop - titleMetrics.top;
+        titleHeight = titleBaseline + titleMetrics.bottom + titlePaddingBottom;
+
+        headerPaint.setTextSize(res.getDimension(R.dimen.calendar_text_small));
+        headerPaint.setColor(headerTextColor);
+        headerPaint.setTextAlign(Paint.Align.CENTER);
+        if (displayHeader && displayDayNamesHeaderRowView) {
+            final Paint.FontMetricsInt headerMetrics = headerPaint.getFontMetricsInt();
+            headerHeight = headerMetrics.bottom - headerMetrics.top
+                    + res.getDimensionPixelSize(R.dimen.calendar_day_headers_paddingbottom);
+        } else {
+            headerHeight = 0;
+        }
+        dayNames = weekdayNames;
+
+        dayPaint.setTextSize(res.getDimension(R.dimen.calendar_text_medium));
+        dayPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        dayPaint.setTextAlign(Paint.Align.CENTER);
+        dayBackground = res.getDrawable(dayBackgroundResId);
+        dayBackground.setCallback(this);
+        dayTextColors = res.getColorStateList(dayTextColorResId);
+    }
+
+    @Override
+    public void setMonthViewListener(MonthView.MonthViewListener monthViewListener) {
+        this.monthViewListener = monthViewListener;
+    }
+
+    @Override
+    public void setMetrics(CalendarMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setWeekdayNames(String[] weekdayNames) {
+        if (weekdayNames != dayNames) {
+            dayNames = weekdayNames;
+            invalidate();
+        }
+    }
+
+    /** Day decorations need cell views; months drawn on canvas aren't decorated. */
+    @Override
+    public <T> void decorate(DayDecorationProvider<T> provider, List<T> decorations) {
+    }
+
+    @Override
+    public boolean canDecorate() {
+        return false;
+    }
+
+    @Override
+    public void init(MonthDescriptor month, List<List<MonthCellDescriptor>> weeks,
+                     DateSelection selection, DayBitSet highlightedDays) {
+        title = month.getLabel();
+        if (numRows != weeks.size()) {
+            numRows = weeks.size();
+            requestLayout();
+        }
+        for (int i = 0; i < numRows; i++) {
+            final List<MonthCellDescriptor> week = weeks.get(i);
+            for (int c = 0; c < 7; c++) {
+                cells[i * 7 + c] = week.get(c);
+            }
+        }
+        pressedIndex = -1;
+        bindCellStates(selection, highlightedDays);
+    }
+
+    @Override
+    public int updateCells(CellChanges changes, DateSelection selection, DayBitSet highlightedDays) {
+        if (numRows == 0 || !changes.intersects(cells[0].getDay(), cells[numRows * 7 - 1].getDay())) {
+            return 0;
+        }
+        int updated = 0;
+        for (int i = 0, count = numRows * 7; i < count; i++) {
+            if (changes.contains(cells[i].getDay())) {
+                final int flags = flagsOf(cells[i], selection, highlightedDays);
+                if (flags != cellFlags[i]) {
+                    cellFlags[i] = flags;
+                    invalidateCell(i);
+                }
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void bindCellStates(DateSelection selection, DayBitSet highlightedDays) {
+        for (int i = 0, count = numRows * 7; i < count; i++) {
+            cellFlags[i] = flagsOf(cells[i], selection, highlightedDays);
+        }
+        invalidate();
+    }
+
+    private static int flagsOf(MonthCellDescriptor cell, DateSelection selection,
+                               DayBitSet highlightedDays) {
+        return CellFlags.of(cell, selection, highlightedDays) | CellStates.FLAG_VIEW_STATES;
+    }
+
+    @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final long start = metrics != null
+                ? metrics.begin(CalendarMetricsListener.Section.MEASURE_MONTH) : 0;
+        final int width = MeasureSpec.getSize(widthMeasureSpec);
+        setMeasuredDimension(width, titleHeight + headerHeight + numRows * (width / 7));
+        if (metrics != null) {
+            metrics.end(CalendarMetricsListener.Section.MEASURE_MONTH, start);
+        }
+    }
+
+    @Override protected void onDraw(Canvas canvas) {
+        final int width = getWidth();
+        final int cellSize = width / 7;
+        if (title != null) {
+            canvas.drawText(title, width / 2f, titleBaseline, titlePaint);
+        }
+
+        if (headerHeight > 0) {
+            final float baseline = titleHeight - headerPaint.getFontMetricsInt().top;
+            for (int c = 0; c < 7; c++) {
+                canvas.drawText(dayNames[c], (columnLeft(c, width) + columnLeft(c + 1, width)) / 2f,
+                        baseline, headerPaint);
+            }
+        }
+
+        final Paint.FontMetricsInt dayMetrics = dayPaint.getFontMetricsInt();
+        final float dayBaselineOffset = (cellSize - dayMetrics.bottom - dayMetrics.top) / 2f;
+        int top = titleHeight + headerHeight;
+        for (int i = 0; i < numRows; i++) {
+            for (int c = 0; c < 7; c++) {
+                final int index = i * 7 + c;
+                final int left = columnLeft(c, width);
+                final int right = columnLeft(c + 1, width);
+                final int[] stateSet = CellStates.stateSetOf(index == pressedIndex
+                        ? cellFlags[index] | CellStates.FLAG_PRESSED : cellFlags[index]);
+
+                dayBackground.setState(stateSet);
+                dayBackground.setBounds(left, top, right, top + cellSize);
+                dayBackground.draw(canvas);
+
+                dayPaint.setColor(dayTextColors.getColorForState(stateSet,
+                        dayTextColors.getDefaultColor()));
+                canvas.drawText(DAY_NUMBERS[cells[index].getValue()], (left + right) / 2f,
+                        top + dayBaselineOffset, dayPaint);
+            }
+            top += cellSize;
+        }
+    }
+
+    /** Same column split as {@link CalendarRowView}: every column gets its share of the rounding. */
+    private static int columnLeft(int column, int width) {
+        return (column * width) / 7;
+    }
+
+    /**
+     * Returns the index of the cell at ({@code x}, {@code y}) if it takes clicks, or -1. Like the
+     * disabled cell views of {@link MonthView}, days of other months and days that can't be
+     * selected don't.
+     */
+    private int clickableCellIndexAt(float x, float y) {
+        final int index = cellIndexAt(x, y);
+        return index >= 0 && cells[index].isCurrentMonth() && cells[index].isSelectable()
+                ? index : -1;
+    }
+
+    /** Returns the index of the cell under ({@code x}, {@code y}), or -1 if there's none. */
+    private int cellIndexAt(float x, float y) {
+        final int width = getWidth();
+        final int cellSize = width / 7;
+        final float gridY = y - titleHeight - headerHeight;
+        if (cellSize == 0 || x < 0 || x >= width || gridY < 0) {
+            return -1;
+        }
+        final int row = (int) (gridY / cellSize);
+        if (row >= numRows) {
+            return -1;
+        }
+        return row * 7 + Math.min(6, (int) (x * 7 / width));
+    }
+
+    private void invalidateCell(int index) {
+        final int width = getWidth();
+        final int cellSize = width / 7;
+        final int column = index % 7;
+        final int top = titleHeight + headerHeight + (index / 7) * cellSize;
+        invalidate(columnLeft(column, width), top, columnLeft(column + 1, width), top + cellSize);
+    }
+
+    private void setPressedIndex(int index) {
+        if (pressedIndex != index) {
+            if (pressedIndex >= 0) {
+                invalidateCell(pressedIndex);
+            }
+            pressedIndex = index;
+            if (index >= 0) {
+                invalidateCell(index);
+            }
+        }
+    }
+
+    @Override public boolean onTouchEvent(MotionEvent event) {
+        final int index = clickableCellIndexAt(event.getX(), event.getY());
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                setPressedIndex(index);
+                return index >= 0;
+            case MotionEvent.ACTION_MOVE:
+                if (index != pressedIndex) {
+                    setPressedIndex(-1);
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                final boolean clicked = index >= 0 && index == pressedIndex;
+                setPressedIndex(-1);
+                if (clicked && monthViewListener != null) {
+                    playSoundEffect(SoundEffectConstants.CLICK);
+                    monthViewListener.handleClick(cells[index]);
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                setPressedIndex(-1);
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    @Override protected boolean verifyDrawable(Drawable who) {
+        return who == dayBackground || super.verifyDrawable(who);
+    }
+}
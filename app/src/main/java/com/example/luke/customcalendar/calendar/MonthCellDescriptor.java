@@ -1,72 +0,0 @@
-package com.example.luke.customcalendar.calendar;
-
-import java.util.Date;
-
-public class MonthCellDescriptor {
-
-    private final Date date;
-    private final int value;
-    private final boolean isCurrentMonth;
-    private boolean isSelected;
-    private final boolean isToday;
-    private final boolean isSelectable;
-    private boolean isHighlighted;
-    private RangeState rangeState;
-
-    MonthCellDescriptor(Date date, boolean currentMonth, boolean selectable, boolean selected,
-                        boolean today, boolean highlighted, int value, RangeState rangeState) {
-        this.date = date;
-        isCurrentMonth = currentMonth;
-        isSelectable = selectable;
-        isHighlighted = highlighted;
-        isSelected = selected;
-        isToday = today;
-        this.value = value;
-        this.rangeState = rangeState;
-    }
-
-    public Date getDate() {
-        return date;
-    }
-
-    public boolean isCurrentMonth() {
-        return isCurrentMonth;
-    }
-
-    public boolean isSelectable() {
-        return isSelectable;
-    }
-
-    public boolean isSelected() {
-        return isSelected;
-    }
-
-    public void setSelected(boolean selected) {
-        isSelected = selected;
-    }
-
-    boolean isHighlighted() {
-        return isHighlighted;
-    }
-
-    void setHighlighted(boolean highlighted) {
-        isHighlighted = highlighted;
-    }
-
-    public boolean isToday() {
-        return isToday;
-    }
-
-    public RangeState getRangeState() {
-        return rangeState;
-    }
-
-    public void setRangeState(RangeState rangeState) {
-        this.rangeState = rangeState;
-    }
-
-    public int getValue() {
-        return value;
-    }
-
-}
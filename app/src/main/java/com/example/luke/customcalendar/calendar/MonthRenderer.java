@@ -0,0 +1,39 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.List;
+
+/**
+ * A view that shows one month: either the inflated {@link MonthView} or the single-view
+ * {@link MonthCanvasView}.
+ */
+interface MonthRenderer {
+
+    void init(MonthDescriptor month, List<List<MonthCellDescriptor>> cells,
+              DateSelection selection, DayBitSet highlightedDays);
+
+    /**
+     * Updates in place the cells whose day is in {@code changes}, leaving the others untouched.
+     * Returns the number of cells that were updated.
+     */
+    int updateCells(CellChanges changes, DateSelection selection, DayBitSet highlightedDays);
+
+    /** Re-derives selection and highlight state of every cell, keeping labels and layout as they are. */
+    void bindCellStates(DateSelection selection, DayBitSet highlightedDays);
+
+    /** Shows {@code weekdayNames} above the month; does nothing if they're already shown. */
+    void setWeekdayNames(String[] weekdayNames);
+
+    void setMonthViewListener(MonthView.MonthViewListener monthViewListener);
+
+    /**
+     * Passes each day cell of the month and its decoration, or null, to {@code provider}.
+     * {@code decorations} is indexed by day of month minus one; null clears all decorations.
+     */
+    <T> void decorate(DayDecorationProvider<T> provider, List<T> decorations);
+
+    /** Returns whether {@link #decorate} shows anything, so that decorations are worth loading. */
+    boolean canDecorate();
+
+    /** Sets where measuring and laying out the month is reported. */
+    void setMetrics(CalendarMetrics metrics);
+}
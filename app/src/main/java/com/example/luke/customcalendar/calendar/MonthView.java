@@ -13,18 +13,21 @@ import android.widget.TextView;
 
 import com.example.luke.customcalendar.R;
 
-import java.text.DateFormat;
-import java.text.NumberFormat;
-import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 
-public class MonthView extends LinearLayout {
+public class MonthView extends LinearLayout implements MonthRenderer {
+
+    // Day numbers are always shown with Western digits.
+    private static final String[] DAY_NUMBERS = DayNumbers.forLocale(Locale.US);
 
     private MonthViewListener monthViewListener;
     private TextView title;
     private CalendarGridView grid;
     private View dayNamesHeaderRowView;
+    private String[] weekdayNames;
+    private int firstShownDay = EpochDays.NO_DAY;
+    private int lastShownDay = EpochDays.NO_DAY;
 
 
     public MonthView(Context context, @Nullable AttributeSet attrs) {
@@ -32,7 +35,7 @@ public class MonthView extends LinearLayout {
     }
 
     public static MonthView create(ViewGroup parent, LayoutInflater inflater,
-       DateFormat weekdayNameFormat, MonthViewListener monthViewListener, Calendar today,
+       String[] weekdayNames, MonthViewListener monthViewListener,
        int dayBackgroundResId, int dayTextColorResId, int titleTextStyle, boolean displayHeader,
        int headerTextColor, boolean displayDayNamesHeaderRowView, DayViewAdapter adapter){
 
@@ -52,17 +55,8 @@ public class MonthView extends LinearLayout {
         view.setHeaderTextColor(headerTextColor);
         view.setDayBackground(dayBackgroundResId);
 
-        int firstDayOfWeek = today.getFirstDayOfWeek();
-        final CalendarRowView headerRow = (CalendarRowView) view.grid.getChildAt(0);
-
         if (displayDayNamesHeaderRowView) {
-            final int originalDayOfWeek = today.get(Calendar.DAY_OF_WEEK);
-            for (int offset = 0; offset < 7; offset++) {
-                today.set(Calendar.DAY_OF_WEEK, getDayOfWeek(firstDayOfWeek, offset));
-                final TextView textView = (TextView) headerRow.getChildAt(offset);
-                textView.setText(weekdayNameFormat.format(today.getTime()));
-            }
-            today.set(Calendar.DAY_OF_WEEK, originalDayOfWeek);
+            view.setWeekdayNames(weekdayNames);
         } else {
             view.dayNamesHeaderRowView.setVisibility(View.GONE);
         }
@@ -72,15 +66,24 @@ public class MonthView extends LinearLayout {
         return view;
     }
 
-    private static int getDayOfWeek(int firstDayOfWeek, int offset) {
-        int dayOfWeek = firstDayOfWeek + offset;
-        return dayOfWeek;
+    @Override
+    public void setWeekdayNames(String[] weekdayNames) {
+        // Names are shared per locale, so the same names are the same array.
+        if (weekdayNames == this.weekdayNames || dayNamesHeaderRowView.getVisibility() == GONE) {
+            return;
+        }
+        this.weekdayNames = weekdayNames;
+        final CalendarRowView headerRow = (CalendarRowView) grid.getChildAt(0);
+        for (int offset = 0; offset < 7; offset++) {
+            ((TextView) headerRow.getChildAt(offset)).setText(weekdayNames[offset]);
+        }
     }
 
-    public void init(MonthDescriptor month, List<List<MonthCellDescriptor>> cells) {
+    @Override
+    public void init(MonthDescriptor month, List<List<MonthCellDescriptor>> cells,
+                     DateSelection selection, DayBitSet highlightedDays) {
 
         title.setText(month.getLabel());
-        NumberFormat numberFormatter = NumberFormat.getNumberInstance(Locale.US);
 
         final int numRows = cells.size();
         grid.setNumRows(numRows);
@@ -96,23 +99,87 @@ public class MonthView extends LinearLayout {
                     MonthCellDescriptor cell = week.get(c);
                     CalendarCellView cellView = (CalendarCellView) weekRow.getChildAt(c);
 
-                    String cellDate = numberFormatter.format(cell.getValue());
+                    String cellDate = DAY_NUMBERS[cell.getValue()];
                     if (!cellView.getDayOfMonthTextView().getText().equals(cellDate)) {
                         cellView.getDayOfMonthTextView().setText(cellDate);
                     }
-                    cellView.setEnabled(cell.isCurrentMonth());
-                    cellView.setSelectable(cell.isSelectable());
-                    cellView.setSelected(cell.isSelected());
-                    cellView.setCurrentMonth(cell.isCurrentMonth());
-                    cellView.setToday(cell.isToday());
-                    cellView.setRangeState(cell.getRangeState());
-                    cellView.setHighlighted(cell.isHighlighted());
+                    bindCellState(cellView, cell, selection, highlightedDays);
                     cellView.setTag(cell);
                 }
             } else {
                 weekRow.setVisibility(GONE);
             }
         }
+        firstShownDay = cells.get(0).get(0).getDay();
+        lastShownDay = firstShownDay + numRows * 7 - 1;
+    }
+
+    @Override
+    public int updateCells(CellChanges changes, DateSelection selection, DayBitSet highlightedDays) {
+        if (firstShownDay == EpochDays.NO_DAY || !changes.intersects(firstShownDay, lastShownDay)) {
+            return 0;
+        }
+        int updated = 0;
+        for (int i = 1, rows = grid.getChildCount(); i < rows; i++) {
+            CalendarRowView weekRow = (CalendarRowView) grid.getChildAt(i);
+            if (weekRow.getVisibility() != VISIBLE) {
+                continue;
+            }
+            for (int c = 0; c < weekRow.getChildCount(); c++) {
+                CalendarCellView cellView = (CalendarCellView) weekRow.getChildAt(c);
+                MonthCellDescriptor cell = (MonthCellDescriptor) cellView.getTag();
+                if (changes.contains(cell.getDay())) {
+                    bindCellState(cellView, cell, selection, highlightedDays);
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public void bindCellStates(DateSelection selection, DayBitSet highlightedDays) {
+        for (int i = 1, rows = grid.getChildCount(); i < rows; i++) {
+            CalendarRowView weekRow = (CalendarRowView) grid.getChildAt(i);
+            if (weekRow.getVisibility() != VISIBLE) {
+                continue;
+            }
+            for (int c = 0; c < weekRow.getChildCount(); c++) {
+                CalendarCellView cellView = (CalendarCellView) weekRow.getChildAt(c);
+                bindCellState(cellView, (MonthCellDescriptor) cellView.getTag(), selection,
+                        highlightedDays);
+            }
+        }
+    }
+
+    @Override
+    public <T> void decorate(DayDecorationProvider<T> provider, List<T> decorations) {
+        for (int i = 1, rows = grid.getChildCount(); i < rows; i++) {
+            CalendarRowView weekRow = (CalendarRowView) grid.getChildAt(i);
+            if (weekRow.getVisibility() != VISIBLE) {
+                continue;
+            }
+            for (int c = 0; c < weekRow.getChildCount(); c++) {
+                CalendarCellView cellView = (CalendarCellView) weekRow.getChildAt(c);
+                MonthCellDescriptor cell = (MonthCellDescriptor) cellView.getTag();
+                // Days of the neighbouring months are decorated with their own month.
+                final int index = cell.getValue() - 1;
+                provider.decorate(cellView, decorations != null && cell.isCurrentMonth()
+                        && index < decorations.size() ? decorations.get(index) : null);
+            }
+        }
+    }
+
+    @Override
+    public boolean canDecorate() {
+        return true;
+    }
+
+    /** Binds the whole state of a cell, refreshing its drawable state at most once. */
+    private static void bindCellState(CalendarCellView cellView, MonthCellDescriptor cell,
+                                      DateSelection selection, DayBitSet highlightedDays) {
+        final int flags = CellFlags.of(cell, selection, highlightedDays);
+        cellView.setState(flags, CellFlags.rangeStateOf(flags));
     }
 
     public void setDayBackground(int resId) {
@@ -135,6 +202,20 @@ public class MonthView extends LinearLayout {
         grid.setHeaderTextColor(color);
     }
 
+    public void setFixedCellGeometry(boolean fixedCellGeometry) {
+        grid.setFixedCellGeometry(fixedCellGeometry);
+    }
+
+    @Override
+    public void setMonthViewListener(MonthViewListener monthViewListener) {
+        this.monthViewListener = monthViewListener;
+    }
+
+    @Override
+    public void setMetrics(CalendarMetrics metrics) {
+        grid.setMetrics(metrics);
+    }
+
     public interface MonthViewListener {
         void handleClick(MonthCellDescriptor cell);
     }
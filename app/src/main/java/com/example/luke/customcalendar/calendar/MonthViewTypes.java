@@ -0,0 +1,51 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View types of a calendar's month views: one per {@link DayViewAdapter} class, so that the months
+ * of each adapter are pooled apart and switching adapters back and forth reuses the views already
+ * inflated for each. Each calendar keeps its own types, numbered in the order it meets the classes.
+ */
+final class MonthViewTypes {
+
+    /** The type of months drawn on canvas, which don't use a {@link DayViewAdapter}. */
+    static final int CANVAS = 0;
+    /** Returned for adapter classes met after the first {@code maxAdapterTypes}. */
+    static final int NO_TYPE = -1;
+    /** How many {@link DayViewAdapter} classes the ListView-based calendar pools apart. */
+    static final int MAX_POOLED_ADAPTERS = 4;
+
+    private final int maxAdapterTypes;
+    private final List<Class<?>> adapterClasses = new ArrayList<>();
+
+    MonthViewTypes(int maxAdapterTypes) {
+        this.maxAdapterTypes = maxAdapterTypes;
+    }
+
+    /** Returns how many types were handed out, {@link #CANVAS} included: they're 0 to count - 1. */
+    int count() {
+        return adapterClasses.size() + 1;
+    }
+
+    /**
+     * Returns the view type of months created by {@code style} with {@code dayViewAdapter}, from
+     * {@link #CANVAS} to {@code maxAdapterTypes}, or {@link #NO_TYPE} once all types are taken.
+     */
+    int of(CalendarStyle style, DayViewAdapter dayViewAdapter) {
+        if (style.drawMonthOnCanvas) {
+            return CANVAS;
+        }
+        final Class<?> adapterClass = dayViewAdapter.getClass();
+        int index = adapterClasses.indexOf(adapterClass);
+        if (index < 0) {
+            if (adapterClasses.size() >= maxAdapterTypes) {
+                return NO_TYPE;
+            }
+            index = adapterClasses.size();
+            adapterClasses.add(adapterClass);
+        }
+        return index + 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/** Calendars shared by the benchmarks. */
+final class BenchmarkCalendars {
+
+    static final TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
+    static final int MIN_DAY = EpochDays.of(2015, 0, 1);
+
+    private static final MonthLabelFormatter NO_LABELS = new MonthLabelFormatter() {
+        @Override public String format(Date month) {
+            return "";
+        }
+    };
+
+    private BenchmarkCalendars() {
+    }
+
+    static int maxDay(int years) {
+        return EpochDays.of(2015 + years, 0, 1);
+    }
+
+    /** Returns a model showing {@code years} years, starting on {@link #MIN_DAY}. */
+    static CalendarModel newModel(int years) {
+        final CalendarModel model = new CalendarModel(NO_LABELS);
+        model.init(EpochDays.toDate(MIN_DAY, TIME_ZONE), EpochDays.toDate(maxDay(years), TIME_ZONE),
+                TIME_ZONE, Locale.US);
+        return model;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Highlighting and looking up 10k highlighted days on a 50-year calendar. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighlightBenchmark {
+
+    private static final int YEARS = 50;
+    private static final int HIGHLIGHTED_DAYS = 10000;
+
+    private CalendarModel model;
+    private List<Date> dates;
+    private int minDay;
+    private int maxDay;
+
+    @Setup
+    public void setUp() {
+        model = BenchmarkCalendars.newModel(YEARS);
+        minDay = BenchmarkCalendars.MIN_DAY;
+        maxDay = BenchmarkCalendars.maxDay(YEARS);
+        final Random random = new Random(42);
+        dates = new ArrayList<>(HIGHLIGHTED_DAYS);
+        for (int i = 0; i < HIGHLIGHTED_DAYS; i++) {
+            dates.add(EpochDays.toDate(minDay + random.nextInt(maxDay - minDay),
+                    BenchmarkCalendars.TIME_ZONE));
+        }
+        model.highlight(dates);
+    }
+
+    @Benchmark
+    public Object rehighlight() {
+        model.clearHighlights();
+        return model.highlight(dates);
+    }
+
+    /** Checks every day of the range, as binding every month would. */
+    @Benchmark
+    public int containsEveryDay() {
+        final DayBitSet highlightedDays = model.getHighlightedDays();
+        int highlighted = 0;
+        for (int day = minDay; day < maxDay; day++) {
+            if (highlightedDays.contains(day)) {
+                highlighted++;
+            }
+        }
+        return highlighted;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds every month of a 20-year calendar and derives each cell's {@link CellFlags} like a bind
+ * does, with selections of increasing length. The time shouldn't depend on how many days are
+ * selected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonthBindBenchmark {
+
+    private static final int YEARS = 20;
+
+    @Param({"0", "1", "31", "365", "3650"})
+    public int selectedDays;
+
+    private DateSelection selection;
+    private final DayBitSet highlightedDays = new DayBitSet();
+    private MonthGridBuilder builder;
+    private int firstMonth;
+    private int lastMonth;
+
+    @Setup
+    public void setUp() {
+        final int maxDay = BenchmarkCalendars.maxDay(YEARS);
+        selection = new DateSelection();
+        if (selectedDays > 0) {
+            selection.selectFirst(BenchmarkCalendars.MIN_DAY + 100);
+            selection.selectLast(BenchmarkCalendars.MIN_DAY + 100 + selectedDays - 1);
+        }
+        builder = new MonthGridBuilder(BenchmarkCalendars.TIME_ZONE, Calendar.SUNDAY,
+                BenchmarkCalendars.MIN_DAY, maxDay, BenchmarkCalendars.MIN_DAY, selection);
+        firstMonth = EpochDays.absoluteMonthOf(BenchmarkCalendars.MIN_DAY);
+        lastMonth = EpochDays.absoluteMonthOf(maxDay - 1);
+    }
+
+    @Benchmark
+    public void buildAndBindAllMonths(Blackhole blackhole) {
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            for (List<MonthCellDescriptor> week : builder.build(month, 0)) {
+                for (MonthCellDescriptor cell : week) {
+                    blackhole.consume(CellFlags.of(cell, selection, highlightedDays));
+                }
+            }
+        }
+    }
+}
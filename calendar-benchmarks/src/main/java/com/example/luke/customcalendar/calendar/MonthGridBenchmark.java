@@ -0,0 +1,61 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/** Builds the grids of every month of a range, as scrolling through the whole calendar would. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonthGridBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int years;
+
+    private MonthGridBuilder builder;
+    private int firstMonth;
+    private int lastMonth;
+
+    @Setup
+    public void setUp() {
+        final int maxDay = BenchmarkCalendars.maxDay(years);
+        builder = new MonthGridBuilder(BenchmarkCalendars.TIME_ZONE, Calendar.SUNDAY,
+                BenchmarkCalendars.MIN_DAY, maxDay, BenchmarkCalendars.MIN_DAY,
+                new DateSelection());
+        firstMonth = EpochDays.absoluteMonthOf(BenchmarkCalendars.MIN_DAY);
+        lastMonth = EpochDays.absoluteMonthOf(maxDay - 1);
+    }
+
+    @Benchmark
+    public void buildAllMonths(Blackhole blackhole) {
+        for (int month = firstMonth; month <= lastMonth; month++) {
+            blackhole.consume(builder.build(month, 0));
+        }
+    }
+
+    /** Goes through the model, including its month cache, the way the adapters bind months. */
+    @Benchmark
+    public void bindAllMonths(Blackhole blackhole) {
+        final CalendarModel model = BenchmarkCalendars.newModel(years);
+        for (int i = 0, count = model.getMonthCount(); i < count; i++) {
+            blackhole.consume(model.getMonth(i));
+            blackhole.consume(model.getMonthCells(i));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Taps on days, resolves dates to cells and checks each day's selection state the way a bind
+ * does, on a calendar whose months are already built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectionBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"1", "10", "50"})
+    public int years;
+
+    private CalendarModel model;
+    private MonthCellDescriptor[] cells;
+    private Date[] dates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        model = BenchmarkCalendars.newModel(years);
+        model.setMaxCachedMonths(model.getMonthCount());
+        final Random random = new Random(42);
+        final int dayCount = BenchmarkCalendars.maxDay(years) - BenchmarkCalendars.MIN_DAY;
+        cells = new MonthCellDescriptor[SAMPLES];
+        dates = new Date[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            final int day = BenchmarkCalendars.MIN_DAY + random.nextInt(dayCount);
+            cells[i] = model.getMonthCellByDay(model.monthIndexOf(day), day);
+            dates[i] = EpochDays.toDate(day, BenchmarkCalendars.TIME_ZONE);
+        }
+    }
+
+    private int nextSample() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    /** One tap: alternately starts a selection and completes or restarts it, as doSelectDate does. */
+    @Benchmark
+    public void tap() {
+        model.select(cells[nextSample()]);
+        model.getCellChanges().clear();
+    }
+
+    /** Two taps selecting a range of up to a year. */
+    @Benchmark
+    public void selectRange() {
+        final MonthCellDescriptor first = cells[nextSample()];
+        final int lastDay = first.getDay() + 364;
+        model.getSelection().clear();
+        model.select(first);
+        final MonthCellDescriptor last = model.getMonthCellByDay(model.monthIndexOf(lastDay), lastDay);
+        if (last != null && last.isSelectable()) {
+            model.select(last);
+        }
+        model.getCellChanges().clear();
+    }
+
+    @Benchmark
+    public MonthCellDescriptor dateToCell() {
+        return model.getSelectableCell(dates[nextSample()]);
+    }
+
+    /** The per-cell selection lookups of binding one 6-week month. */
+    @Benchmark
+    public void bindStateOfMonth(Blackhole blackhole) {
+        final DateSelection selection = model.getSelection();
+        final int firstDay = cells[nextSample()].getDay();
+        for (int day = firstDay; day < firstDay + 42; day++) {
+            blackhole.consume(selection.isSelected(day));
+            blackhole.consume(selection.getRangeState(day));
+        }
+    }
+}
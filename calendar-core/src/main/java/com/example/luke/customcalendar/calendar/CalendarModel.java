@@ -0,0 +1,481 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * The view-independent state of a calendar: its bounds, lazily built months, selection and
+ * highlights. The list-based and RecyclerView-based calendar views both render one of these.
+ */
+final class CalendarModel {
+
+    /**
+     * Bounds used when the calendar isn't given any: 1601 through 2400, all within the Gregorian
+     * calendar. Only the months around the viewport are ever built.
+     */
+    private static final int UNBOUNDED_MIN_DAY = EpochDays.of(1601, Calendar.JANUARY, 1);
+    private static final int UNBOUNDED_MAX_DAY = EpochDays.of(2401, Calendar.JANUARY, 1);
+
+    private final MonthStore monthStore = new MonthStore();
+    private final DateSelection selection = new DateSelection();
+    private final DayBitSet highlightedDays = new DayBitSet();
+    private final CellChanges cellChanges = new CellChanges();
+    private final DayRules dayRules = new DayRules();
+    private final MonthLabelFormatter labelFormatter;
+
+    private TimeZone timeZone;
+    private int minDay;
+    private int maxDay;
+    private int todayDay;
+    private MonthGridBuilder gridBuilder;
+    private DaySelectListener daySelectListener;
+    /** A state restored before init, applied by the next init; null if there's none. */
+    private int[] pendingHighlighted;
+    private int pendingFirstSelectedDay;
+    private int pendingLastSelectedDay;
+
+    CalendarModel(MonthLabelFormatter labelFormatter) {
+        this.labelFormatter = labelFormatter;
+    }
+
+    void setDaySelectListener(DaySelectListener daySelectListener) {
+        this.daySelectListener = daySelectListener;
+    }
+
+    DaySelectListener getDaySelectListener() {
+        return daySelectListener;
+    }
+
+    /** Sets the days that can't be selected, or null for none. */
+    void setDisabledDateRule(DateRule rule) {
+        if (rule == dayRules.getDisabledRule()) {
+            return;
+        }
+        dayRules.setDisabledRule(rule);
+        // Built grids have the old rule baked into their selectable cells.
+        monthStore.clearCells();
+    }
+
+    DateRule getDisabledDateRule() {
+        return dayRules.getDisabledRule();
+    }
+
+    /** Sets the days that can end a range but not start one, or null for none. */
+    void setNoRangeStartRule(DateRule rule) {
+        dayRules.setNoRangeStartRule(rule);
+    }
+
+    DateRule getNoRangeStartRule() {
+        return dayRules.getNoRangeStartRule();
+    }
+
+    /**
+     * Resets the model to show [{@code minDate}, {@code maxDate}), dropping selection and highlights
+     * unless a state was {@link #restore restored} before the first init.
+     */
+    void init(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
+        checkInitArguments(minDate, maxDate, timeZone, locale);
+
+        this.timeZone = timeZone;
+        final Calendar today = Calendar.getInstance(timeZone, locale);
+        todayDay = EpochDays.of(today);
+
+        // Clear previous state.
+        selection.clear();
+        cellChanges.clear();
+        minDay = EpochDays.of(minDate, timeZone);
+        // maxDate is exclusive: a maxDate on the first of a month doesn't include that month.
+        maxDay = EpochDays.of(maxDate, timeZone);
+        final int minMonth = EpochDays.absoluteMonthOf(minDay);
+        final int maxMonth = EpochDays.absoluteMonthOf(maxDay - 1);
+
+        // Months between minDay and maxDay are only counted here; their descriptors and cell grids
+        // are built lazily when a view binds them.
+        monthStore.reset(EpochDays.yearOf(minMonth), EpochDays.monthOf(minMonth),
+                Math.max(0, maxMonth - minMonth + 1));
+        dayRules.reset(minMonth, monthStore.size());
+        highlightedDays.reset(EpochDays.firstDayOfMonth(minMonth),
+                EpochDays.firstDayOfMonth(maxMonth + 1));
+        gridBuilder = new MonthGridBuilder(timeZone, today.getFirstDayOfWeek(), minDay, maxDay,
+                todayDay, selection);
+
+        if (pendingHighlighted != null) {
+            final int[] highlighted = pendingHighlighted;
+            pendingHighlighted = null;
+            restore(pendingFirstSelectedDay, pendingLastSelectedDay, highlighted);
+        }
+    }
+
+    /** Resets the model to show every month from 1601 to 2400, starting around today. */
+    void initUnbounded(TimeZone timeZone, Locale locale) {
+        if (timeZone == null) {
+            throw new IllegalArgumentException("Time zone is null.");
+        }
+        init(EpochDays.toDate(UNBOUNDED_MIN_DAY, timeZone),
+                EpochDays.toDate(UNBOUNDED_MAX_DAY, timeZone), timeZone, locale);
+    }
+
+    /**
+     * Switches the time zone and locale without re-initializing: bounds, selection, highlights and
+     * disabled days stay on the same local days. Month descriptors are recreated, and so relabelled,
+     * as they're needed; cell grids are only rebuilt if the first day of the week changed.
+     */
+    void setLocale(TimeZone timeZone, Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("Locale is null.");
+        }
+        if (timeZone == null) {
+            throw new IllegalArgumentException("Time zone is null.");
+        }
+        if (!isInitialized()) {
+            return;
+        }
+        this.timeZone = timeZone;
+        final Calendar today = Calendar.getInstance(timeZone, locale);
+        final int firstDayOfWeek = today.getFirstDayOfWeek();
+
+        // Descriptors hold the label and the first day's instant in the old time zone.
+        monthStore.clearMonths();
+        if (firstDayOfWeek != gridBuilder.getFirstDayOfWeek()) {
+            monthStore.clearCells();
+        } else {
+            for (List<List<MonthCellDescriptor>> monthCells : monthStore.getAllCells()) {
+                for (List<MonthCellDescriptor> week : monthCells) {
+                    for (MonthCellDescriptor cell : week) {
+                        cell.setTimeZone(timeZone);
+                    }
+                }
+            }
+        }
+        gridBuilder = new MonthGridBuilder(timeZone, firstDayOfWeek, minDay, maxDay, todayDay,
+                selection);
+        // Today may be another day in the new time zone. Views rebind every month anyway.
+        moveToday(EpochDays.of(today));
+        cellChanges.clear();
+    }
+
+    /** Throws the exception {@link #init} would throw for invalid arguments. */
+    static void checkInitArguments(Date minDate, Date maxDate, TimeZone timeZone, Locale locale) {
+        if (minDate == null || maxDate == null) {
+            throw new IllegalArgumentException(
+                    "minDate and maxDate must be non-null.  " + dbg(minDate, maxDate));
+        }
+        if (minDate.after(maxDate)) {
+            throw new IllegalArgumentException(
+                    "minDate must be before maxDate.  " + dbg(minDate, maxDate));
+        }
+        if (locale == null) {
+            throw new IllegalArgumentException("Locale is null.");
+        }
+        if (timeZone == null) {
+            throw new IllegalArgumentException("Time zone is null.");
+        }
+    }
+
+    private static String dbg(Date minDate, Date maxDate) {
+        return "minDate: " + minDate + "\nmaxDate: " + maxDate;
+    }
+
+    TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    DateSelection getSelection() {
+        return selection;
+    }
+
+    DayBitSet getHighlightedDays() {
+        return highlightedDays;
+    }
+
+    /** Returns whether {@link #init} has been called, i.e. whether there are days to show. */
+    boolean isInitialized() {
+        return gridBuilder != null;
+    }
+
+    /** Day spans touched by the last selection changes; views clear it once they have caught up. */
+    CellChanges getCellChanges() {
+        return cellChanges;
+    }
+
+    int getMonthCount() {
+        return monthStore.size();
+    }
+
+    /** Sets how many built months are kept around; the least recently used ones are evicted. */
+    void setMaxCachedMonths(int maxCachedMonths) {
+        monthStore.setMaxCachedMonths(maxCachedMonths);
+    }
+
+    MonthCacheStats getMonthCacheStats() {
+        return monthStore.getStats();
+    }
+
+    boolean isValidMonthIndex(int monthIndex) {
+        return monthStore.isValidIndex(monthIndex);
+    }
+
+    int monthIndexOf(int day) {
+        return monthStore.indexOfDay(day);
+    }
+
+    /** Returns a stable id for the month at {@code monthIndex} that survives a re-init. */
+    long getMonthId(int monthIndex) {
+        return monthStore.absoluteMonthAt(monthIndex);
+    }
+
+    /** Returns the index of the month with id {@code monthId}; it may be out of bounds. */
+    int getMonthIndex(long monthId) {
+        return (int) (monthId - monthStore.absoluteMonthAt(0));
+    }
+
+    int getDayCount(int monthIndex) {
+        final int absoluteMonth = monthStore.absoluteMonthAt(monthIndex);
+        return EpochDays.firstDayOfMonth(absoluteMonth + 1) - EpochDays.firstDayOfMonth(absoluteMonth);
+    }
+
+    MonthDescriptor getMonth(int monthIndex) {
+        MonthDescriptor month = monthStore.getMonth(monthIndex);
+        if (month == null) {
+            final int absoluteMonth = monthStore.absoluteMonthAt(monthIndex);
+            Date date = EpochDays.toDate(EpochDays.firstDayOfMonth(absoluteMonth), timeZone);
+            month = new MonthDescriptor(EpochDays.monthOf(absoluteMonth),
+                    EpochDays.yearOf(absoluteMonth), date, labelFormatter.format(date));
+            monthStore.putMonth(monthIndex, month);
+        }
+        return month;
+    }
+
+    List<List<MonthCellDescriptor>> getMonthCells(int monthIndex) {
+        List<List<MonthCellDescriptor>> monthCells = monthStore.getCells(monthIndex);
+        if (monthCells == null) {
+            final int absoluteMonth = monthStore.absoluteMonthAt(monthIndex);
+            monthCells = gridBuilder.build(absoluteMonth, dayRules.disabledMask(absoluteMonth));
+            monthStore.putCells(monthIndex, monthCells);
+        }
+        return monthCells;
+    }
+
+    /** Returns whether {@link #getMonthCells} would return the month's grid without building it. */
+    boolean isMonthBuilt(int monthIndex) {
+        return monthStore.containsCells(monthIndex);
+    }
+
+    /** Builds the months in [{@code fromIndex}, {@code toIndex}] that aren't built yet. */
+    void prefetch(int fromIndex, int toIndex) {
+        for (int i = Math.max(0, fromIndex), last = Math.min(getMonthCount() - 1, toIndex); i <= last;
+                i++) {
+            getMonth(i);
+            getMonthCells(i);
+        }
+    }
+
+    /**
+     * Resolves the cell of {@code day} within the month at {@code monthIndex} by computing its row and
+     * column from the month's first-day offset.
+     */
+    MonthCellDescriptor getMonthCellByDay(int monthIndex, int day) {
+        if (!monthStore.isValidIndex(monthIndex)) {
+            return null;
+        }
+        final int firstDay = EpochDays.firstDayOfMonth(monthStore.absoluteMonthAt(monthIndex));
+        final int position = day - firstDay + gridBuilder.leadingDays(firstDay);
+        return getMonthCells(monthIndex).get(position / 7).get(position % 7);
+    }
+
+    /** Returns the selectable cell of {@code date}, or null if it can't be selected. */
+    MonthCellDescriptor getSelectableCell(Date date) {
+        validateDate(date);
+
+        final int day = EpochDays.of(date, timeZone);
+        MonthCellDescriptor cell = getMonthCellByDay(monthIndexOf(day), day);
+        return cell != null && cell.isSelectable() ? cell : null;
+    }
+
+    private void validateDate(Date date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Selected date must be non-null.");
+        }
+        final int day = EpochDays.of(date, timeZone);
+        if (day < minDay || day >= maxDay) {
+            throw new IllegalArgumentException(String.format(
+                    "SelectedDate must be between minDate and maxDate."
+                            + "%nminDate: %s%nmaxDate: %s%nselectedDate: %s",
+                    EpochDays.toDate(minDay, timeZone), EpochDays.toDate(maxDay, timeZone), date));
+        }
+    }
+
+    /**
+     * Applies a tap on {@code cell} to the selection, recording the affected days in
+     * {@link #getCellChanges()}. Returns false, leaving the selection as it was, if the day can't be
+     * selected or the tap would start a range on a day that can't start one.
+     */
+    boolean select(MonthCellDescriptor cell) {
+        final int day = cell.getDay();
+        // A cell built before the disabled rule changed may still claim to be selectable.
+        if (!cell.isSelectable() || dayRules.isAnyDisabled(day, day)) {
+            return false;
+        }
+        // Start over if a range is already selected, if we're moving the start of the range back in
+        // time, or if the range would span a disabled day.
+        final boolean startsRange = selection.isEmpty() || selection.hasLast()
+                || day < selection.getFirst() || dayRules.isAnyDisabled(selection.getFirst(), day);
+        if (startsRange && !dayRules.canStartRange(day)) {
+            return false;
+        }
+        recordSelectionSpan();
+
+        if (startsRange) {
+            // Cells pick up their new state when they are bound.
+            selection.clear();
+            selection.selectFirst(day);
+            if (daySelectListener != null) {
+                daySelectListener.selectStartDate(cell.getDate());
+            }
+        } else {
+            selection.selectLast(day);
+            if (daySelectListener != null && day != selection.getFirst()) {
+                daySelectListener.selectLastDate(cell.getDate());
+            }
+        }
+
+        // Only the days covered by the old or the new selection can have changed.
+        recordSelectionSpan();
+        return true;
+    }
+
+    private void recordSelectionSpan() {
+        if (!selection.isEmpty()) {
+            cellChanges.add(selection.getFirst(),
+                    selection.hasLast() ? selection.getLast() : selection.getFirst());
+        }
+    }
+
+    /**
+     * Restores a selection and highlights saved as epoch days. Nothing is built and the listener isn't
+     * called: like any selection, the state is looked up as months get bound. Days that are outside
+     * the bounds or disabled are dropped, as is a range end past a disabled day. Before the model is
+     * initialized, the state is kept and applied by the next init, against its bounds.
+     */
+    void restore(int firstSelectedDay, int lastSelectedDay, int[] highlighted) {
+        if (!isInitialized()) {
+            pendingFirstSelectedDay = firstSelectedDay;
+            pendingLastSelectedDay = lastSelectedDay;
+            pendingHighlighted = highlighted;
+            return;
+        }
+        selection.clear();
+        if (isRestorable(firstSelectedDay)) {
+            selection.selectFirst(firstSelectedDay);
+            if (lastSelectedDay >= firstSelectedDay && isRestorable(lastSelectedDay)
+                    && !dayRules.isAnyDisabled(firstSelectedDay, lastSelectedDay)) {
+                selection.selectLast(lastSelectedDay);
+            }
+        }
+        highlightedDays.clear();
+        for (int day : highlighted) {
+            highlightedDays.add(day);
+        }
+        cellChanges.clear();
+    }
+
+    private boolean isRestorable(int day) {
+        return day != EpochDays.NO_DAY && day >= minDay && day < maxDay
+                && !dayRules.isAnyDisabled(day, day);
+    }
+
+    /**
+     * Moves today to the current day in the calendar's time zone if the day changed, e.g. at
+     * midnight. Only the cells of the old and new today in months already built are updated, and
+     * their days are recorded in {@link #getCellChanges()}; returns whether today moved.
+     */
+    boolean updateToday() {
+        return moveToday(EpochDays.of(System.currentTimeMillis(), timeZone));
+    }
+
+    /** Moves today to {@code day} as {@link #updateToday} does; also used by {@link #setLocale}. */
+    boolean moveToday(int day) {
+        if (day == todayDay) {
+            return false;
+        }
+        setTodayFlag(todayDay, false);
+        setTodayFlag(day, true);
+        cellChanges.add(todayDay, todayDay);
+        cellChanges.add(day, day);
+        todayDay = day;
+        gridBuilder.setTodayDay(day);
+        return true;
+    }
+
+    /** Returns when the day after today starts, in milliseconds since the epoch. */
+    long getNextDayMillis() {
+        return EpochDays.toDate(todayDay + 1, timeZone).getTime();
+    }
+
+    private void setTodayFlag(int day, boolean isToday) {
+        // Besides its own month, a day can be shown before or after the days of a neighbour month.
+        final int monthIndex = monthIndexOf(day);
+        for (int i = monthIndex - 1; i <= monthIndex + 1; i++) {
+            if (!monthStore.isValidIndex(i) || !monthStore.containsCells(i)) {
+                continue;
+            }
+            final List<List<MonthCellDescriptor>> cells = getMonthCells(i);
+            final int position = day - cells.get(0).get(0).getDay();
+            if (position >= 0 && position < cells.size() * 7) {
+                cells.get(position / 7).get(position % 7).setToday(isToday);
+            }
+        }
+    }
+
+    /** Returns the month to scroll to initially: the first selected one, else today's, else -1. */
+    int getInitialMonthIndex() {
+        int selectedIndex = selection.isEmpty() ? -1 : monthIndexOf(selection.getFirst());
+        if (monthStore.isValidIndex(selectedIndex)) {
+            return selectedIndex;
+        }
+        int todayIndex = monthIndexOf(todayDay);
+        return monthStore.isValidIndex(todayIndex) ? todayIndex : -1;
+    }
+
+    /** Adds highlights and returns the indices of the months whose highlights changed. */
+    BitSet highlight(Collection<Date> dates) {
+        final BitSet changedMonths = new BitSet();
+        for (Date date : dates) {
+            final int day = EpochDays.of(date, timeZone);
+            if (highlightedDays.add(day)) {
+                changedMonths.set(monthIndexOf(day));
+            }
+        }
+        return changedMonths;
+    }
+
+    /** Removes highlights and returns the indices of the months whose highlights changed. */
+    BitSet unhighlight(Collection<Date> dates) {
+        final BitSet changedMonths = new BitSet();
+        for (Date date : dates) {
+            final int day = EpochDays.of(date, timeZone);
+            if (highlightedDays.remove(day)) {
+                changedMonths.set(monthIndexOf(day));
+            }
+        }
+        return changedMonths;
+    }
+
+    /** Removes all highlights and returns the indices of the months that had any. */
+    BitSet clearHighlights() {
+        final BitSet changedMonths = new BitSet();
+        int day = highlightedDays.nextDay(Integer.MIN_VALUE);
+        while (day != EpochDays.NO_DAY) {
+            final int absoluteMonth = EpochDays.absoluteMonthOf(day);
+            changedMonths.set(monthIndexOf(day));
+            day = highlightedDays.nextDay(EpochDays.firstDayOfMonth(absoluteMonth + 1));
+        }
+        highlightedDays.clear();
+        return changedMonths;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.luke.customcalendar.calendar;
+
+/**
+ * Records the epoch-day intervals whose cell state changed, so that only the affected months and
+ * cells get updated instead of rebinding every visible month.
+ */
+final class CellChanges {
+
+    private int[] fromDays = new int[4];
+    private int[] toDays = new int[4];
+    private int size;
+
+    /** Marks every day in [{@code fromDay}, {@code toDay}] as changed. */
+    void add(int fromDay, int toDay) {
+        if (size == fromDays.length) {
+            fromDays = grow(fromDays);
+            toDays = grow(toDays);
+        }
+        fromDays[size] = Math.min(fromDay, toDay);
+        toDays[size] = Math.max(fromDay, toDay);
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Returns the number of recorded intervals. */
+    int size() {
+        return size;
+    }
+
+    int getFromDay(int index) {
+        return fromDays[index];
+    }
+
+    int getToDay(int index) {
+        return toDays[index];
+    }
+
+    boolean contains(int day) {
+        for (int i = 0; i < size; i++) {
+            if (day >= fromDays[i] && day <= toDays[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns whether any changed day falls in [{@code fromDay}, {@code toDay}]. */
+    boolean intersects(int fromDay, int toDay) {
+        for (int i = 0; i < size; i++) {
+            if (fromDays[i] <= toDay && toDays[i] >= fromDay) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private static int[] grow(int[] array) {
+        final int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.luke.customcalendar.calendar;
+
+/**
+ * The bound state of a day cell packed into an int: whether it's selectable, in the current month,
+ * today, highlighted and selected, and its part of a selected range. Both month renderers derive
+ * their cells' state here, from the cell, the selection and the highlights.
+ */
+final class CellFlags {
+
+    static final int SELECTABLE = 1;
+    static final int CURRENT_MONTH = 1 << 1;
+    static final int TODAY = 1 << 2;
+    static final int HIGHLIGHTED = 1 << 3;
+    static final int SELECTED = 1 << 4;
+
+    private static final int RANGE_STATE_SHIFT = 5;
+    private static final int RANGE_STATE_MASK = 3 << RANGE_STATE_SHIFT;
+    private static final RangeState[] RANGE_STATES = RangeState.values();
+
+    /** The first bit not used by these flags, free for renderers to add their own. */
+    static final int FIRST_FREE_BIT = 1 << 7;
+
+    private CellFlags() {
+    }
+
+    /** Returns the flags of {@code cell}; only selectable cells can be selected or part of a range. */
+    static int of(MonthCellDescriptor cell, DateSelection selection, DayBitSet highlightedDays) {
+        int flags = 0;
+        if (cell.isCurrentMonth()) {
+            flags |= CURRENT_MONTH;
+        }
+        if (cell.isToday()) {
+            flags |= TODAY;
+        }
+        if (highlightedDays.contains(cell.getDay())) {
+            flags |= HIGHLIGHTED;
+        }
+        if (cell.isSelectable()) {
+            flags |= SELECTABLE;
+            // Selection is kept as an interval; derive this cell's part of it here.
+            if (selection.isSelected(cell.getDay())) {
+                flags |= SELECTED;
+            }
+            flags = withRangeState(flags, selection.getRangeState(cell.getDay()));
+        }
+        return flags;
+    }
+
+    /** Returns {@code flags} with {@code rangeState} packed in. */
+    static int withRangeState(int flags, RangeState rangeState) {
+        return flags & ~RANGE_STATE_MASK | rangeState.ordinal() << RANGE_STATE_SHIFT;
+    }
+
+    static RangeState rangeStateOf(int flags) {
+        return RANGE_STATES[(flags & RANGE_STATE_MASK) >>> RANGE_STATE_SHIFT];
+    }
+}
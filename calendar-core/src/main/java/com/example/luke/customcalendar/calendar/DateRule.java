@@ -0,0 +1,93 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * A set of days, such as weekends, holidays or fully booked days, described a month at a time. The
+ * calendar asks a rule for each month once and keeps the answer as a bitmask, so rules are never
+ * evaluated while binding or selecting cells.
+ */
+public abstract class DateRule {
+
+    /**
+     * Returns the days of {@code month} (0-based, like {@link Calendar#MONTH}) of {@code year} the rule
+     * applies to, with bit {@code n - 1} set for day {@code n}. {@code firstDayOfWeek} is the day of
+     * week of the first of the month, {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}.
+     */
+    public abstract int monthMask(int year, int month, int firstDayOfWeek, int dayCount);
+
+    /** Returns a rule that applies to the days of either this rule or {@code other}. */
+    public DateRule or(DateRule other) {
+        return anyOf(this, other);
+    }
+
+    /** Returns a rule that applies to the days of any of {@code rules}. */
+    public static DateRule anyOf(final DateRule... rules) {
+        return new DateRule() {
+            @Override
+            public int monthMask(int year, int month, int firstDayOfWeek, int dayCount) {
+                int mask = 0;
+                for (DateRule rule : rules) {
+                    mask |= rule.monthMask(year, month, firstDayOfWeek, dayCount);
+                }
+                return mask;
+            }
+        };
+    }
+
+    /** Returns a rule that applies to every {@link Calendar#SATURDAY} and {@link Calendar#SUNDAY}. */
+    public static DateRule weekends() {
+        return daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY);
+    }
+
+    /** Returns a rule that applies to the given days of week, {@link Calendar#SUNDAY} to {@link Calendar#SATURDAY}. */
+    public static DateRule daysOfWeek(int... daysOfWeek) {
+        int weekMask = 0;
+        for (int dayOfWeek : daysOfWeek) {
+            if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+                throw new IllegalArgumentException("Invalid day of week: " + dayOfWeek);
+            }
+            weekMask |= 1 << (dayOfWeek - Calendar.SUNDAY);
+        }
+        final int days = weekMask;
+        return new DateRule() {
+            @Override
+            public int monthMask(int year, int month, int firstDayOfWeek, int dayCount) {
+                int mask = 0;
+                for (int i = 0, dayOfWeek = firstDayOfWeek - Calendar.SUNDAY; i < dayCount; i++) {
+                    if ((days & (1 << dayOfWeek)) != 0) {
+                        mask |= 1 << i;
+                    }
+                    dayOfWeek = dayOfWeek == 6 ? 0 : dayOfWeek + 1;
+                }
+                return mask;
+            }
+        };
+    }
+
+    /**
+     * Returns a rule that applies to the days of {@code dates} in {@code timeZone}. The dates are
+     * copied into per-month masks, so later changes to the collection aren't seen.
+     */
+    public static DateRule dates(Collection<Date> dates, TimeZone timeZone) {
+        final Map<Integer, Integer> masks = new HashMap<>();
+        for (Date date : dates) {
+            final int day = EpochDays.of(date, timeZone);
+            final int absoluteMonth = EpochDays.absoluteMonthOf(day);
+            final Integer mask = masks.get(absoluteMonth);
+            masks.put(absoluteMonth, (mask != null ? mask : 0) | 1 << (EpochDays.dayOfMonth(day) - 1));
+        }
+        return new DateRule() {
+            @Override
+            public int monthMask(int year, int month, int firstDayOfWeek, int dayCount) {
+                final Integer mask = masks.get(EpochDays.absoluteMonth(year, month));
+                return mask != null ? mask : 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.luke.customcalendar.calendar;
+
+/**
+ * The selected day, or selected [first, last] range of days, as epoch days. Nothing is materialized
+ * per cell: the month view asks for the state of each day when it binds a month.
+ */
+final class DateSelection {
+
+    private int first = EpochDays.NO_DAY;
+    private int last = EpochDays.NO_DAY;
+
+    boolean isEmpty() {
+        return first == EpochDays.NO_DAY;
+    }
+
+    boolean hasLast() {
+        return last != EpochDays.NO_DAY;
+    }
+
+    int getFirst() {
+        return first;
+    }
+
+    int getLast() {
+        return last;
+    }
+
+    void selectFirst(int day) {
+        first = day;
+        last = EpochDays.NO_DAY;
+    }
+
+    void selectLast(int day) {
+        if (isEmpty() || day < first) {
+            throw new IllegalStateException("The last day of a range can't precede its first day.");
+        }
+        last = day;
+    }
+
+    void clear() {
+        first = EpochDays.NO_DAY;
+        last = EpochDays.NO_DAY;
+    }
+
+    boolean isSelected(int day) {
+        return day == first || (last != EpochDays.NO_DAY && day > first && day <= last);
+    }
+
+    RangeState getRangeState(int day) {
+        if (last == EpochDays.NO_DAY || last == first || day < first || day > last) {
+            return RangeState.NONE;
+        }
+        if (day == first) {
+            return RangeState.FIRST;
+        }
+        return day == last ? RangeState.LAST : RangeState.MIDDLE;
+    }
+}
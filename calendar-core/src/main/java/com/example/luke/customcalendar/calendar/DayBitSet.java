@@ -0,0 +1,87 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Arrays;
+
+/** A set of epoch days in [{@code firstDay}, {@code endDay}) backed by one bit per day. */
+final class DayBitSet {
+
+    private int firstDay;
+    private int endDay;
+    private long[] words = new long[0];
+
+    /** Empties the set and resizes it to hold the days in [{@code firstDay}, {@code endDay}). */
+    void reset(int firstDay, int endDay) {
+        this.firstDay = firstDay;
+        this.endDay = Math.max(firstDay, endDay);
+        final int wordCount = (this.endDay - firstDay + 63) >>> 6;
+        if (words.length != wordCount) {
+            words = new long[wordCount];
+        } else {
+            Arrays.fill(words, 0L);
+        }
+    }
+
+    boolean contains(int day) {
+        if (day < firstDay || day >= endDay) {
+            return false;
+        }
+        final int bit = day - firstDay;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /** Adds {@code day}, returning whether the set changed. Days out of range are ignored. */
+    boolean add(int day) {
+        if (day < firstDay || day >= endDay) {
+            return false;
+        }
+        final int bit = day - firstDay;
+        final long word = words[bit >>> 6];
+        words[bit >>> 6] = word | (1L << bit);
+        return word != words[bit >>> 6];
+    }
+
+    /** Removes {@code day}, returning whether the set changed. */
+    boolean remove(int day) {
+        if (day < firstDay || day >= endDay) {
+            return false;
+        }
+        final int bit = day - firstDay;
+        final long word = words[bit >>> 6];
+        words[bit >>> 6] = word & ~(1L << bit);
+        return word != words[bit >>> 6];
+    }
+
+    /** Returns the first day in the set on or after {@code fromDay}, or {@link EpochDays#NO_DAY}. */
+    int nextDay(int fromDay) {
+        int bit = Math.max(fromDay, firstDay) - firstDay;
+        int wordIndex = bit >>> 6;
+        if (wordIndex >= words.length) {
+            return EpochDays.NO_DAY;
+        }
+        long word = words[wordIndex] & (-1L << bit);
+        while (word == 0) {
+            if (++wordIndex == words.length) {
+                return EpochDays.NO_DAY;
+            }
+            word = words[wordIndex];
+        }
+        return firstDay + wordIndex * 64 + Long.numberOfTrailingZeros(word);
+    }
+
+    /** Returns the days in the set in ascending order. */
+    int[] toArray() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        final int[] days = new int[count];
+        for (int i = 0, day = nextDay(firstDay); i < count; i++, day = nextDay(day + 1)) {
+            days[i] = day;
+        }
+        return days;
+    }
+
+    void clear() {
+        Arrays.fill(words, 0L);
+    }
+}
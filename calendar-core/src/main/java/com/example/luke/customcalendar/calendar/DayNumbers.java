@@ -0,0 +1,34 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Day-of-month labels, formatted once per locale. Binding a month looks its labels up here instead
+ * of formatting 42 numbers.
+ */
+final class DayNumbers {
+
+    private static final Map<Locale, String[]> TABLES = new HashMap<>();
+
+    private DayNumbers() {
+    }
+
+    /** Returns the labels of days 1 to 31 in {@code locale}'s digits, indexed by day of month. */
+    static String[] forLocale(Locale locale) {
+        synchronized (TABLES) {
+            String[] table = TABLES.get(locale);
+            if (table == null) {
+                final NumberFormat numberFormatter = NumberFormat.getNumberInstance(locale);
+                table = new String[32];
+                for (int day = 1; day < table.length; day++) {
+                    table[day] = numberFormatter.format(day).intern();
+                }
+                TABLES.put(locale, table);
+            }
+            return table;
+        }
+    }
+}
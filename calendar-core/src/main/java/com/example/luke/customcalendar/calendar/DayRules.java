@@ -0,0 +1,117 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Arrays;
+
+/**
+ * The calendar's {@link DateRule}s compiled into one mask per month, bit {@code n - 1} for day
+ * {@code n}. A month is compiled the first time one of its days is looked up; after that,
+ * disabled-day and range checks are bit tests.
+ */
+final class DayRules {
+
+    /** Masks only use the low 31 bits, so this can't be a compiled mask. */
+    private static final int NOT_COMPILED = -1;
+
+    private final MonthMasks disabled = new MonthMasks();
+    private final MonthMasks noRangeStart = new MonthMasks();
+
+    /** Drops the compiled masks and sizes them for {@code monthCount} months starting at the given one. */
+    void reset(int firstAbsoluteMonth, int monthCount) {
+        disabled.reset(firstAbsoluteMonth, monthCount);
+        noRangeStart.reset(firstAbsoluteMonth, monthCount);
+    }
+
+    void setDisabledRule(DateRule rule) {
+        disabled.setRule(rule);
+    }
+
+    DateRule getDisabledRule() {
+        return disabled.rule;
+    }
+
+    void setNoRangeStartRule(DateRule rule) {
+        noRangeStart.setRule(rule);
+    }
+
+    DateRule getNoRangeStartRule() {
+        return noRangeStart.rule;
+    }
+
+    /** Returns the disabled days of the month, bit {@code n - 1} for day {@code n}. */
+    int disabledMask(int absoluteMonth) {
+        return disabled.get(absoluteMonth);
+    }
+
+    boolean canStartRange(int day) {
+        return !noRangeStart.contains(day);
+    }
+
+    /** Returns whether any day in [{@code fromDay}, {@code toDay}] is disabled. */
+    boolean isAnyDisabled(int fromDay, int toDay) {
+        if (disabled.rule == null) {
+            return false;
+        }
+        int absoluteMonth = EpochDays.absoluteMonthOf(fromDay);
+        int from = EpochDays.dayOfMonth(fromDay) - 1;
+        while (fromDay <= toDay) {
+            final int firstDay = EpochDays.firstDayOfMonth(absoluteMonth);
+            final int nextFirstDay = EpochDays.firstDayOfMonth(absoluteMonth + 1);
+            final int to = Math.min(toDay, nextFirstDay - 1) - firstDay;
+            // Bits from..to of the month.
+            final int span = (int) ((1L << (to + 1)) - (1L << from));
+            if ((disabled.get(absoluteMonth) & span) != 0) {
+                return true;
+            }
+            fromDay = nextFirstDay;
+            absoluteMonth++;
+            from = 0;
+        }
+        return false;
+    }
+
+    private static final class MonthMasks {
+
+        DateRule rule;
+        private int firstAbsoluteMonth;
+        private int monthCount;
+        private int[] masks;
+
+        void reset(int firstAbsoluteMonth, int monthCount) {
+            this.firstAbsoluteMonth = firstAbsoluteMonth;
+            this.monthCount = monthCount;
+            masks = null;
+        }
+
+        void setRule(DateRule rule) {
+            this.rule = rule;
+            masks = null;
+        }
+
+        boolean contains(int day) {
+            return (get(EpochDays.absoluteMonthOf(day)) & 1 << (EpochDays.dayOfMonth(day) - 1)) != 0;
+        }
+
+        int get(int absoluteMonth) {
+            final int index = absoluteMonth - firstAbsoluteMonth;
+            if (rule == null || index < 0 || index >= monthCount) {
+                return 0;
+            }
+            if (masks == null) {
+                masks = new int[monthCount];
+                Arrays.fill(masks, NOT_COMPILED);
+            }
+            if (masks[index] == NOT_COMPILED) {
+                masks[index] = compile(absoluteMonth);
+            }
+            return masks[index];
+        }
+
+        private int compile(int absoluteMonth) {
+            final int firstDay = EpochDays.firstDayOfMonth(absoluteMonth);
+            final int dayCount = EpochDays.firstDayOfMonth(absoluteMonth + 1) - firstDay;
+            final int mask = rule.monthMask(EpochDays.yearOf(absoluteMonth),
+                    EpochDays.monthOf(absoluteMonth), EpochDays.dayOfWeek(firstDay), dayCount);
+            return mask & (int) ((1L << dayCount) - 1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static java.util.Calendar.DAY_OF_MONTH;
+import static java.util.Calendar.MONTH;
+import static java.util.Calendar.YEAR;
+
+/**
+ * Day arithmetic on epoch days: the number of days since 1970-01-01 of a local (wall clock) date.
+ * Months are 0-based like {@link Calendar#MONTH}, and an "absolute month" is {@code year * 12 + month}.
+ */
+final class EpochDays {
+
+    static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    /** Marks the absence of a day wherever an epoch day is expected. */
+    static final int NO_DAY = Integer.MIN_VALUE;
+
+    private EpochDays() {
+    }
+
+    static int of(int year, int month, int dayOfMonth) {
+        // Proleptic Gregorian days-from-civil, with the year starting in March.
+        final int y = month < 2 ? year - 1 : year;
+        final int era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = y - era * 400;
+        final int shiftedMonth = month < 2 ? month + 10 : month - 2;
+        final int dayOfYear = (153 * shiftedMonth + 2) / 5 + dayOfMonth - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static int of(Calendar cal) {
+        return of(cal.get(YEAR), cal.get(MONTH), cal.get(DAY_OF_MONTH));
+    }
+
+    static int of(Date date, TimeZone timeZone) {
+        return of(date.getTime(), timeZone);
+    }
+
+    static int of(long millis, TimeZone timeZone) {
+        final long local = millis + timeZone.getOffset(millis);
+        return (int) (local >= 0 ? local / MILLIS_PER_DAY : (local + 1) / MILLIS_PER_DAY - 1);
+    }
+
+    /** Returns the instant of local midnight starting {@code day} in {@code timeZone}. */
+    static Date toDate(int day, TimeZone timeZone) {
+        final long local = day * MILLIS_PER_DAY;
+        long millis = local - timeZone.getOffset(local);
+        millis = local - timeZone.getOffset(millis);
+        if (millis + timeZone.getOffset(millis) < local) {
+            // Midnight falls into a DST gap: use the first instant after the transition instead.
+            millis = local - timeZone.getOffset(millis);
+        }
+        return new Date(millis);
+    }
+
+    static int absoluteMonthOf(int day) {
+        final int z = day + 719468;
+        final int era = (z >= 0 ? z : z - 146096) / 146097;
+        final int dayOfEra = z - era * 146097;
+        final int yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int month = shiftedMonth < 10 ? shiftedMonth + 2 : shiftedMonth - 10;
+        final int year = yearOfEra + era * 400 + (month < 2 ? 1 : 0);
+        return year * 12 + month;
+    }
+
+    static int absoluteMonth(int year, int month) {
+        return year * 12 + month;
+    }
+
+    static int yearOf(int absoluteMonth) {
+        return absoluteMonth >= 0 ? absoluteMonth / 12 : (absoluteMonth + 1) / 12 - 1;
+    }
+
+    static int monthOf(int absoluteMonth) {
+        return absoluteMonth - yearOf(absoluteMonth) * 12;
+    }
+
+    static int firstDayOfMonth(int absoluteMonth) {
+        return of(yearOf(absoluteMonth), monthOf(absoluteMonth), 1);
+    }
+
+    static int dayOfMonth(int day) {
+        return day - firstDayOfMonth(absoluteMonthOf(day)) + 1;
+    }
+
+    /** Returns the day of week of {@code day} as one of {@link Calendar#SUNDAY}..{@link Calendar#SATURDAY}. */
+    static int dayOfWeek(int day) {
+        // 1970-01-01 was a Thursday.
+        return ((day + 4) % 7 + 7) % 7 + Calendar.SUNDAY;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.luke.customcalendar.calendar;
+
+/** A snapshot of the counters of the cache that keeps built months around. */
+public final class MonthCacheStats {
+
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    MonthCacheStats(int size, int maxSize, long hitCount, long missCount, long evictionCount) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /** Returns the number of months currently cached. */
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Returns how many times a month's cells were found in the cache. */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Returns how many times a month's cells had to be built. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override public String toString() {
+        return "MonthCacheStats{size=" + size + ", maxSize=" + maxSize + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+public class MonthCellDescriptor {
+
+    private final int day;
+    private TimeZone timeZone;
+    private final int value;
+    private final boolean isCurrentMonth;
+    private boolean isToday;
+    private final boolean isSelectable;
+    private final DateSelection selection;
+
+    MonthCellDescriptor(int day, TimeZone timeZone, boolean currentMonth, boolean selectable,
+                        boolean today, int value, DateSelection selection) {
+        this.day = day;
+        this.timeZone = timeZone;
+        isCurrentMonth = currentMonth;
+        isSelectable = selectable;
+        isToday = today;
+        this.value = value;
+        this.selection = selection;
+    }
+
+    public Date getDate() {
+        return EpochDays.toDate(day, timeZone);
+    }
+
+    /** Moves the cell to another time zone; it stays on the same local day. */
+    void setTimeZone(TimeZone timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    int getDay() {
+        return day;
+    }
+
+    public boolean isCurrentMonth() {
+        return isCurrentMonth;
+    }
+
+    public boolean isSelectable() {
+        return isSelectable;
+    }
+
+    /**
+     * @deprecated The calendar keeps the selection as a range of days rather than per cell; this
+     * looks the cell up in it. Listen for selections with a {@code DaySelectListener} instead.
+     */
+    @Deprecated
+    public boolean isSelected() {
+        return isSelectable && selection.isSelected(day);
+    }
+
+    /**
+     * @deprecated Has no effect: the calendar owns the selection. Select days with
+     * {@code CalendarMainView.selectDate(Date)} instead.
+     */
+    @Deprecated
+    public void setSelected(boolean selected) {
+    }
+
+    /**
+     * @deprecated The calendar keeps the selection as a range of days rather than per cell; this
+     * looks the cell up in it. Listen for selections with a {@code DaySelectListener} instead.
+     */
+    @Deprecated
+    public RangeState getRangeState() {
+        return isSelectable ? selection.getRangeState(day) : RangeState.NONE;
+    }
+
+    /**
+     * @deprecated Has no effect: range states follow the selection. Select the first and last day
+     * with {@code CalendarMainView.selectDate(Date)} instead.
+     */
+    @Deprecated
+    public void setRangeState(RangeState rangeState) {
+    }
+
+    public boolean isToday() {
+        return isToday;
+    }
+
+    /** Moves today here or away; see {@link CalendarModel#updateToday()}. */
+    void setToday(boolean isToday) {
+        this.isToday = isToday;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+}
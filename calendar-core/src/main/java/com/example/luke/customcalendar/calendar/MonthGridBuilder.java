@@ -0,0 +1,84 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Builds the week rows of a month. The grid only depends on the calendar's bounds, today and the
+ * first day of the week; selection and highlights are looked up when a month is bound, so building
+ * a month costs the same however many days are selected.
+ */
+final class MonthGridBuilder {
+
+    private final TimeZone timeZone;
+    private final int firstDayOfWeek;
+    private final int minDay;
+    private final int maxDay;
+    private int todayDay;
+    private final DateSelection selection;
+
+    /**
+     * Selectable days are [{@code minDay}, {@code maxDay}). Cells only keep a reference to
+     * {@code selection}, for their deprecated selection accessors.
+     */
+    MonthGridBuilder(TimeZone timeZone, int firstDayOfWeek, int minDay, int maxDay, int todayDay,
+                     DateSelection selection) {
+        this.timeZone = timeZone;
+        this.firstDayOfWeek = firstDayOfWeek;
+        this.minDay = minDay;
+        this.maxDay = maxDay;
+        this.todayDay = todayDay;
+        this.selection = selection;
+    }
+
+    int getFirstDayOfWeek() {
+        return firstDayOfWeek;
+    }
+
+    void setTodayDay(int todayDay) {
+        this.todayDay = todayDay;
+    }
+
+    /** Builds the month's rows; days set in {@code disabledDays} (bit n - 1 for day n) can't be selected. */
+    List<List<MonthCellDescriptor>> build(int absoluteMonth, int disabledDays) {
+        List<List<MonthCellDescriptor>> cells = new ArrayList<>(6);
+        final int firstDay = EpochDays.firstDayOfMonth(absoluteMonth);
+        final int nextMonthFirstDay = EpochDays.firstDayOfMonth(absoluteMonth + 1);
+        final int previousMonthFirstDay = EpochDays.firstDayOfMonth(absoluteMonth - 1);
+        int day = firstDay - leadingDays(firstDay);
+
+        while (day < nextMonthFirstDay) {
+            List<MonthCellDescriptor> weekCells = new ArrayList<>(7);
+            cells.add(weekCells);
+            for (int c = 0; c < 7; c++) {
+                boolean isCurrentMonth = day >= firstDay && day < nextMonthFirstDay;
+                boolean isSelectable = isCurrentMonth && day >= minDay && day < maxDay
+                        && (disabledDays & 1 << (day - firstDay)) == 0;
+                boolean isToday = day == todayDay;
+                int value;
+                if (day < firstDay) {
+                    value = day - previousMonthFirstDay + 1;
+                } else if (isCurrentMonth) {
+                    value = day - firstDay + 1;
+                } else {
+                    value = day - nextMonthFirstDay + 1;
+                }
+
+                weekCells.add(new MonthCellDescriptor(day, timeZone, isCurrentMonth, isSelectable,
+                        isToday, value, selection));
+                day++;
+            }
+        }
+        return cells;
+    }
+
+    /** Returns the number of days from the previous month shown before {@code firstDay} of a month. */
+    int leadingDays(int firstDay) {
+        int offset = EpochDays.dayOfWeek(firstDay) - firstDayOfWeek;
+        if (offset < 0) {
+            offset += 7;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Date;
+
+public interface MonthLabelFormatter {
+    String format(Date month);
+}
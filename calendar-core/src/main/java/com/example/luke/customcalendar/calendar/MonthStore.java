@@ -0,0 +1,252 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Storage of the months shown by the calendar. A month lives at index
+ * {@code (year - minYear) * 12 + month - minMonth}. Only the most recently used months are kept, so
+ * memory for built months stays the same however wide the range is and however far the user
+ * scrolls; evicted months are rebuilt when they're needed again.
+ *
+ * <p>Months are kept in a table of slots, found through an int per month index. The slots are
+ * linked from the most to the least recently used, so lookups, use and eviction are array reads
+ * and writes that neither box nor allocate.
+ */
+final class MonthStore {
+
+    static final int DEFAULT_MAX_CACHED_MONTHS = 24;
+
+    private static final int NO_SLOT = -1;
+    private static final int INITIAL_SLOT_CAPACITY = 8;
+
+    private int minYear;
+    private int minMonth;
+    private int size;
+    private int maxCachedMonths = DEFAULT_MAX_CACHED_MONTHS;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /** The slot of each month index, or {@link #NO_SLOT}. */
+    private int[] slotOfIndex = new int[0];
+    /** The month index held by each slot, and what's kept for it. */
+    private int[] indexOfSlot = new int[INITIAL_SLOT_CAPACITY];
+    private MonthDescriptor[] months = new MonthDescriptor[INITIAL_SLOT_CAPACITY];
+    private List<List<MonthCellDescriptor>>[] cells = newCellsArray(INITIAL_SLOT_CAPACITY);
+    /** The recency list of the used slots: the next more and less recently used slot of each. */
+    private int[] newer = new int[INITIAL_SLOT_CAPACITY];
+    private int[] older = new int[INITIAL_SLOT_CAPACITY];
+    private int mostRecent = NO_SLOT;
+    private int leastRecent = NO_SLOT;
+    private int usedSlots;
+
+    /** Drops all stored months and sizes the store for {@code size} months starting at the given one. */
+    void reset(int minYear, int minMonth, int size) {
+        this.minYear = minYear;
+        this.minMonth = minMonth;
+        this.size = size;
+        if (slotOfIndex.length != size) {
+            slotOfIndex = new int[size];
+        }
+        Arrays.fill(slotOfIndex, NO_SLOT);
+        Arrays.fill(months, null);
+        Arrays.fill(cells, null);
+        mostRecent = NO_SLOT;
+        leastRecent = NO_SLOT;
+        usedSlots = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int indexOf(int year, int month) {
+        return (year - minYear) * 12 + month - minMonth;
+    }
+
+    int indexOfDay(int day) {
+        final int absoluteMonth = EpochDays.absoluteMonthOf(day);
+        return indexOf(EpochDays.yearOf(absoluteMonth), EpochDays.monthOf(absoluteMonth));
+    }
+
+    /** Returns the absolute month ({@code year * 12 + month}) stored at {@code index}. */
+    int absoluteMonthAt(int index) {
+        return EpochDays.absoluteMonth(minYear, minMonth) + index;
+    }
+
+    boolean isValidIndex(int index) {
+        return index >= 0 && index < size;
+    }
+
+    /** Sets how many months are kept, evicting the least recently used ones if needed. */
+    void setMaxCachedMonths(int maxCachedMonths) {
+        if (maxCachedMonths < 1) {
+            throw new IllegalArgumentException("maxCachedMonths must be positive: " + maxCachedMonths);
+        }
+        this.maxCachedMonths = maxCachedMonths;
+        while (usedSlots > maxCachedMonths) {
+            evict(leastRecent);
+        }
+    }
+
+    MonthDescriptor getMonth(int index) {
+        final int slot = slotOfIndex[index];
+        if (slot == NO_SLOT) {
+            return null;
+        }
+        use(slot);
+        return months[slot];
+    }
+
+    void putMonth(int index, MonthDescriptor month) {
+        final int slot = slotFor(index);
+        months[slot] = month;
+    }
+
+    List<List<MonthCellDescriptor>> getCells(int index) {
+        final int slot = slotOfIndex[index];
+        if (slot != NO_SLOT && cells[slot] != null) {
+            hitCount++;
+            use(slot);
+            return cells[slot];
+        }
+        missCount++;
+        return null;
+    }
+
+    /** Returns whether the cells at {@code index} are cached, without counting a hit or miss. */
+    boolean containsCells(int index) {
+        final int slot = slotOfIndex[index];
+        return slot != NO_SLOT && cells[slot] != null;
+    }
+
+    void putCells(int index, List<List<MonthCellDescriptor>> monthCells) {
+        final int slot = slotFor(index);
+        cells[slot] = monthCells;
+    }
+
+    /** Drops the descriptors of all months, keeping their cells. */
+    void clearMonths() {
+        Arrays.fill(months, null);
+    }
+
+    /** Returns the cells of the months that have them, without counting hits or misses. */
+    List<List<List<MonthCellDescriptor>>> getAllCells() {
+        final List<List<List<MonthCellDescriptor>>> allCells = new ArrayList<>(usedSlots);
+        for (int slot = 0; slot < usedSlots; slot++) {
+            if (cells[slot] != null) {
+                allCells.add(cells[slot]);
+            }
+        }
+        return allCells;
+    }
+
+    /** Drops the cells of all months, keeping their descriptors. */
+    void clearCells() {
+        Arrays.fill(cells, null);
+    }
+
+    MonthCacheStats getStats() {
+        return new MonthCacheStats(usedSlots, maxCachedMonths, hitCount, missCount,
+                evictionCount);
+    }
+
+    /** Returns the slot of {@code index} as the most recently used one, taking a slot if needed. */
+    private int slotFor(int index) {
+        int slot = slotOfIndex[index];
+        if (slot != NO_SLOT) {
+            use(slot);
+            return slot;
+        }
+        if (usedSlots >= maxCachedMonths) {
+            evict(leastRecent);
+        }
+        if (usedSlots == indexOfSlot.length) {
+            growSlots();
+        }
+        // Used slots are always [0, usedSlots): eviction moves the last one into the freed slot.
+        slot = usedSlots++;
+        indexOfSlot[slot] = index;
+        slotOfIndex[index] = slot;
+        linkMostRecent(slot);
+        return slot;
+    }
+
+    private void use(int slot) {
+        if (slot != mostRecent) {
+            unlink(slot);
+            linkMostRecent(slot);
+        }
+    }
+
+    private void evict(int slot) {
+        unlink(slot);
+        slotOfIndex[indexOfSlot[slot]] = NO_SLOT;
+        final int last = --usedSlots;
+        if (slot != last) {
+            // Keep used slots contiguous by moving the last one here.
+            indexOfSlot[slot] = indexOfSlot[last];
+            months[slot] = months[last];
+            cells[slot] = cells[last];
+            slotOfIndex[indexOfSlot[slot]] = slot;
+            newer[slot] = newer[last];
+            older[slot] = older[last];
+            if (newer[slot] != NO_SLOT) {
+                older[newer[slot]] = slot;
+            } else {
+                mostRecent = slot;
+            }
+            if (older[slot] != NO_SLOT) {
+                newer[older[slot]] = slot;
+            } else {
+                leastRecent = slot;
+            }
+        }
+        months[last] = null;
+        cells[last] = null;
+        evictionCount++;
+    }
+
+    private void linkMostRecent(int slot) {
+        newer[slot] = NO_SLOT;
+        older[slot] = mostRecent;
+        if (mostRecent != NO_SLOT) {
+            newer[mostRecent] = slot;
+        } else {
+            leastRecent = slot;
+        }
+        mostRecent = slot;
+    }
+
+    private void unlink(int slot) {
+        final int newerSlot = newer[slot];
+        final int olderSlot = older[slot];
+        if (newerSlot != NO_SLOT) {
+            older[newerSlot] = olderSlot;
+        } else {
+            mostRecent = olderSlot;
+        }
+        if (olderSlot != NO_SLOT) {
+            newer[olderSlot] = newerSlot;
+        } else {
+            leastRecent = newerSlot;
+        }
+    }
+
+    /** Grows the slot table, which only ever holds up to {@link #maxCachedMonths} months. */
+    private void growSlots() {
+        final int capacity = (int) Math.min(maxCachedMonths, indexOfSlot.length * 2L);
+        indexOfSlot = Arrays.copyOf(indexOfSlot, capacity);
+        months = Arrays.copyOf(months, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+        newer = Arrays.copyOf(newer, capacity);
+        older = Arrays.copyOf(older, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<MonthCellDescriptor>>[] newCellsArray(int size) {
+        return (List<List<MonthCellDescriptor>>[]) new List<?>[size];
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * The day names shown above each month, starting at the locale's first day of the week. They're
+ * formatted once per pattern, time zone and locale and shared by every month view.
+ */
+final class WeekdayNames {
+
+    private static final Map<String, String[]> NAMES = new HashMap<>();
+
+    private WeekdayNames() {
+    }
+
+    /** Returns the seven day names, to be treated as immutable. */
+    static String[] of(String pattern, TimeZone timeZone, Locale locale) {
+        final String key = pattern + "|" + timeZone.getID() + "|" + locale;
+        synchronized (NAMES) {
+            String[] names = NAMES.get(key);
+            if (names == null) {
+                final SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+                format.setTimeZone(timeZone);
+                // A calendar of our own, so no caller's "today" gets moved around.
+                final Calendar calendar = Calendar.getInstance(timeZone, locale);
+                final int firstDayOfWeek = calendar.getFirstDayOfWeek();
+                names = new String[7];
+                for (int offset = 0; offset < 7; offset++) {
+                    calendar.set(Calendar.DAY_OF_WEEK, (firstDayOfWeek - 1 + offset) % 7 + 1);
+                    names[offset] = format.format(calendar.getTime());
+                }
+                NAMES.put(key, names);
+            }
+            return names;
+        }
+    }
+}
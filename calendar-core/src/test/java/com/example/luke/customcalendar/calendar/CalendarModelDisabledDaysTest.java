@@ -0,0 +1,97 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Collections;
+
+import static com.example.luke.customcalendar.calendar.TestModels.date;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Selecting with disabled days and days that can't start a range. */
+public class CalendarModelDisabledDaysTest {
+
+    private static final int TUESDAY = EpochDays.of(2026, Calendar.MARCH, 10);
+    private static final int SATURDAY = EpochDays.of(2026, Calendar.MARCH, 14);
+    private static final int MARCH_30 = EpochDays.of(2026, Calendar.MARCH, 30);
+    private static final int APRIL_1 = EpochDays.of(2026, Calendar.APRIL, 1);
+    private static final int APRIL_3 = EpochDays.of(2026, Calendar.APRIL, 3);
+
+    private CalendarModel model;
+
+    @Before
+    public void setUp() {
+        model = TestModels.initialized(EpochDays.of(2026, Calendar.JANUARY, 1),
+                EpochDays.of(2027, Calendar.JANUARY, 1));
+    }
+
+    @Test
+    public void refusesToStartARangeOnADisabledDay() {
+        model.setDisabledDateRule(DateRule.weekends());
+
+        assertFalse(model.select(cellOf(SATURDAY)));
+        assertTrue(model.getSelection().isEmpty());
+    }
+
+    @Test
+    public void refusesToEndARangeOnADisabledDay() {
+        model.setDisabledDateRule(DateRule.weekends());
+        assertTrue(model.select(cellOf(TUESDAY)));
+
+        assertFalse(model.select(cellOf(SATURDAY)));
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertFalse(model.getSelection().hasLast());
+    }
+
+    @Test
+    public void refusesADayDisabledAfterItsCellWasBuilt() {
+        final MonthCellDescriptor saturday = cellOf(SATURDAY);
+        assertTrue(saturday.isSelectable());
+        model.setDisabledDateRule(DateRule.weekends());
+
+        assertFalse(model.select(saturday));
+        assertTrue(model.getSelection().isEmpty());
+    }
+
+    @Test
+    public void disabledDaysCantBeSelectedByDate() {
+        model.setDisabledDateRule(DateRule.weekends());
+
+        assertNull(model.getSelectableCell(date(SATURDAY)));
+    }
+
+    @Test
+    public void startsOverRatherThanSpanADisabledDayInAnotherMonth() {
+        model.setDisabledDateRule(DateRule.dates(Collections.singletonList(date(APRIL_1)),
+                TestModels.UTC));
+        assertTrue(model.select(cellOf(MARCH_30)));
+
+        assertTrue(model.select(cellOf(APRIL_3)));
+
+        assertEquals(APRIL_3, model.getSelection().getFirst());
+        assertFalse(model.getSelection().hasLast());
+    }
+
+    @Test
+    public void noRangeStartDaysCanOnlyEndARange() {
+        model.setNoRangeStartRule(DateRule.weekends());
+
+        // What selectDate does: find the selectable cell of the date, then select it.
+        final MonthCellDescriptor saturday = model.getSelectableCell(date(SATURDAY));
+        assertFalse(model.select(saturday));
+        assertTrue(model.getSelection().isEmpty());
+
+        assertTrue(model.select(model.getSelectableCell(date(TUESDAY))));
+        assertTrue(model.select(saturday));
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertEquals(SATURDAY, model.getSelection().getLast());
+    }
+
+    private MonthCellDescriptor cellOf(int day) {
+        return model.getMonthCellByDay(model.monthIndexOf(day), day);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Locale;
+
+import static com.example.luke.customcalendar.calendar.TestModels.date;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Highlighted days: kept by day for the whole range, apart from the months that get built. */
+public class CalendarModelHighlightsTest {
+
+    private static final int MIN_DAY = EpochDays.of(2026, Calendar.JANUARY, 1);
+    private static final int MAX_DAY = EpochDays.of(2027, Calendar.JANUARY, 1);
+    private static final int MARCH_10 = EpochDays.of(2026, Calendar.MARCH, 10);
+    private static final int MARCH_20 = EpochDays.of(2026, Calendar.MARCH, 20);
+    private static final int JUNE_1 = EpochDays.of(2026, Calendar.JUNE, 1);
+
+    private CalendarModel model;
+
+    @Before
+    public void setUp() {
+        model = TestModels.initialized(MIN_DAY, MAX_DAY);
+    }
+
+    @Test
+    public void highlightReturnsTheMonthsThatChanged() {
+        final BitSet changed = model.highlight(Arrays.asList(date(MARCH_10), date(MARCH_20),
+                date(JUNE_1)));
+
+        assertEquals(bits(model.monthIndexOf(MARCH_10), model.monthIndexOf(JUNE_1)), changed);
+        assertTrue(model.getHighlightedDays().contains(MARCH_20));
+        assertTrue(model.highlight(Collections.singletonList(date(MARCH_10))).isEmpty());
+    }
+
+    @Test
+    public void highlightsTheDaysAtTheBounds() {
+        model.highlight(Arrays.asList(date(MIN_DAY), date(MAX_DAY - 1)));
+
+        assertTrue(model.getHighlightedDays().contains(MIN_DAY));
+        assertTrue(model.getHighlightedDays().contains(MAX_DAY - 1));
+    }
+
+    @Test
+    public void ignoresDaysOutOfRange() {
+        final BitSet changed = model.highlight(Arrays.asList(date(MIN_DAY - 1), date(MAX_DAY)));
+
+        assertTrue(changed.isEmpty());
+        assertEquals(0, model.getHighlightedDays().toArray().length);
+    }
+
+    @Test
+    public void unhighlightingDaysThatWereNeverHighlightedChangesNothing() {
+        model.highlight(Collections.singletonList(date(MARCH_10)));
+
+        assertTrue(model.unhighlight(Arrays.asList(date(MARCH_20), date(JUNE_1))).isEmpty());
+        assertTrue(model.getHighlightedDays().contains(MARCH_10));
+    }
+
+    @Test
+    public void clearHighlightsReturnsTheMonthsThatHadAny() {
+        model.highlight(Arrays.asList(date(MARCH_10), date(MARCH_20), date(JUNE_1)));
+
+        assertEquals(bits(model.monthIndexOf(MARCH_10), model.monthIndexOf(JUNE_1)),
+                model.clearHighlights());
+        assertEquals(0, model.getHighlightedDays().toArray().length);
+    }
+
+    @Test
+    public void reinitDropsHighlights() {
+        model.highlight(Collections.singletonList(date(MARCH_10)));
+
+        model.init(date(MIN_DAY), date(MAX_DAY), TestModels.UTC, Locale.US);
+
+        assertFalse(model.getHighlightedDays().contains(MARCH_10));
+    }
+
+    @Test
+    public void highlightsSurviveMonthEviction() {
+        model.setMaxCachedMonths(1);
+        final int march = model.monthIndexOf(MARCH_10);
+        model.getMonthCells(march);
+        model.highlight(Collections.singletonList(date(MARCH_10)));
+
+        model.getMonthCells(model.monthIndexOf(JUNE_1));
+        assertFalse(model.isMonthBuilt(march));
+        model.getMonthCells(march);
+
+        assertEquals(2, model.getMonthCacheStats().getEvictionCount());
+        assertTrue(model.getHighlightedDays().contains(MARCH_10));
+    }
+
+    private static BitSet bits(int... indices) {
+        final BitSet bits = new BitSet();
+        for (int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/** Switching the time zone and locale of an initialized model. */
+public class CalendarModelLocaleTest {
+
+    private static final TimeZone TOKYO = TimeZone.getTimeZone("Asia/Tokyo");
+    /** UTC-11 and UTC+14 all year round, so always on different days. */
+    private static final TimeZone PAGO_PAGO = TimeZone.getTimeZone("Pacific/Pago_Pago");
+    private static final TimeZone KIRITIMATI = TimeZone.getTimeZone("Pacific/Kiritimati");
+    private static final int TUESDAY = EpochDays.of(2026, Calendar.MARCH, 10);
+    private static final int FRIDAY = EpochDays.of(2026, Calendar.MARCH, 13);
+    private static final int SATURDAY = EpochDays.of(2026, Calendar.MARCH, 14);
+
+    private CalendarModel model;
+    private int march;
+
+    @Before
+    public void setUp() {
+        model = TestModels.initialized(EpochDays.of(2026, Calendar.JANUARY, 1),
+                EpochDays.of(2027, Calendar.JANUARY, 1));
+        march = model.monthIndexOf(TUESDAY);
+    }
+
+    @Test
+    public void keepsTheCellsWhenTheFirstDayOfTheWeekIsUnchanged() {
+        final List<List<MonthCellDescriptor>> cells = model.getMonthCells(march);
+        final MonthDescriptor month = model.getMonth(march);
+
+        model.setLocale(TOKYO, Locale.JAPAN);
+
+        assertSame(cells, model.getMonthCells(march));
+        final MonthCellDescriptor tuesday = cellOf(TUESDAY);
+        assertEquals(TUESDAY, tuesday.getDay());
+        assertEquals(EpochDays.toDate(TUESDAY, TOKYO), tuesday.getDate());
+        // Descriptors are relabelled in the new time zone.
+        assertNotSame(month, model.getMonth(march));
+        assertEquals(EpochDays.toDate(EpochDays.of(2026, Calendar.MARCH, 1), TOKYO),
+                model.getMonth(march).getDate());
+    }
+
+    @Test
+    public void rebuildsTheCellsWhenTheFirstDayOfTheWeekChanges() {
+        final List<List<MonthCellDescriptor>> cells = model.getMonthCells(march);
+        assertEquals(Calendar.SUNDAY, EpochDays.dayOfWeek(cells.get(0).get(0).getDay()));
+
+        model.setLocale(TestModels.UTC, Locale.GERMANY);
+
+        final List<List<MonthCellDescriptor>> rebuilt = model.getMonthCells(march);
+        assertNotSame(cells, rebuilt);
+        assertEquals(Calendar.MONDAY, EpochDays.dayOfWeek(rebuilt.get(0).get(0).getDay()));
+    }
+
+    @Test
+    public void keepsTheSelectionHighlightsAndDisabledDaysOnTheSameDates() {
+        model.setDisabledDateRule(DateRule.weekends());
+        assertTrue(model.select(cellOf(TUESDAY)));
+        assertTrue(model.select(cellOf(FRIDAY)));
+        model.highlight(Collections.singletonList(TestModels.date(FRIDAY)));
+
+        model.setLocale(TOKYO, Locale.GERMANY);
+
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertEquals(FRIDAY, model.getSelection().getLast());
+        assertArrayEquals(new int[] {FRIDAY}, model.getHighlightedDays().toArray());
+        assertFalse(cellOf(SATURDAY).isSelectable());
+        assertNull(model.getSelectableCell(EpochDays.toDate(SATURDAY, TOKYO)));
+        assertSame(cellOf(FRIDAY), model.getSelectableCell(EpochDays.toDate(FRIDAY, TOKYO)));
+    }
+
+    @Test
+    public void movesTodayToTheDayOfTheNewTimeZone() {
+        final CalendarModel model = TestModels.uninitialized();
+        final int pagoPagoToday = today(PAGO_PAGO);
+        model.initUnbounded(PAGO_PAGO, Locale.US);
+        final int kiritimatiToday = today(KIRITIMATI);
+        final List<List<MonthCellDescriptor>> cells =
+                model.getMonthCells(model.monthIndexOf(kiritimatiToday));
+
+        model.setLocale(KIRITIMATI, Locale.US);
+
+        // Skip rather than fail if the day changed in either zone while the test ran.
+        assumeTrue(pagoPagoToday == today(PAGO_PAGO) && kiritimatiToday == today(KIRITIMATI));
+        assertSame(cells, model.getMonthCells(model.monthIndexOf(kiritimatiToday)));
+        assertTrue(model.getMonthCellByDay(model.monthIndexOf(kiritimatiToday), kiritimatiToday)
+                .isToday());
+        assertEquals(EpochDays.toDate(kiritimatiToday + 1, KIRITIMATI).getTime(),
+                model.getNextDayMillis());
+    }
+
+    private MonthCellDescriptor cellOf(int day) {
+        return model.getMonthCellByDay(model.monthIndexOf(day), day);
+    }
+
+    private static int today(TimeZone timeZone) {
+        return EpochDays.of(System.currentTimeMillis(), timeZone);
+    }
+}
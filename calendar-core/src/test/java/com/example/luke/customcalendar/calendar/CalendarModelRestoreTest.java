@@ -0,0 +1,116 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+
+import static com.example.luke.customcalendar.calendar.TestModels.date;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Restoring a saved selection and highlights, as the views do from their instance state. */
+public class CalendarModelRestoreTest {
+
+    private static final int MIN_DAY = EpochDays.of(2026, Calendar.JANUARY, 1);
+    private static final int MAX_DAY = EpochDays.of(2027, Calendar.JANUARY, 1);
+    private static final int TUESDAY = EpochDays.of(2026, Calendar.MARCH, 10);
+    private static final int FRIDAY = EpochDays.of(2026, Calendar.MARCH, 13);
+    private static final int SATURDAY = EpochDays.of(2026, Calendar.MARCH, 14);
+    private static final int NEXT_TUESDAY = EpochDays.of(2026, Calendar.MARCH, 17);
+
+    private final CountingListener listener = new CountingListener();
+    private CalendarModel model;
+
+    @Before
+    public void setUp() {
+        model = TestModels.initialized(MIN_DAY, MAX_DAY);
+        model.setDaySelectListener(listener);
+    }
+
+    @Test
+    public void restoresTheSelectionAndHighlights() {
+        model.restore(TUESDAY, FRIDAY, new int[] {SATURDAY, NEXT_TUESDAY});
+
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertEquals(FRIDAY, model.getSelection().getLast());
+        assertArrayEquals(new int[] {SATURDAY, NEXT_TUESDAY}, model.getHighlightedDays().toArray());
+        assertEquals(0, listener.calls);
+    }
+
+    @Test
+    public void dropsDaysOutsideTheBounds() {
+        model.restore(MIN_DAY - 1, FRIDAY, new int[] {MIN_DAY - 1, TUESDAY, MAX_DAY});
+        assertTrue(model.getSelection().isEmpty());
+        assertArrayEquals(new int[] {TUESDAY}, model.getHighlightedDays().toArray());
+
+        model.restore(TUESDAY, MAX_DAY, new int[0]);
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertFalse(model.getSelection().hasLast());
+        assertEquals(0, listener.calls);
+    }
+
+    @Test
+    public void dropsDisabledDays() {
+        model.setDisabledDateRule(DateRule.weekends());
+
+        model.restore(SATURDAY, NEXT_TUESDAY, new int[0]);
+        assertTrue(model.getSelection().isEmpty());
+
+        model.restore(TUESDAY, SATURDAY, new int[0]);
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertFalse(model.getSelection().hasLast());
+    }
+
+    @Test
+    public void dropsARangeEndPastADisabledDay() {
+        model.setDisabledDateRule(DateRule.dates(Collections.singletonList(date(FRIDAY)),
+                TestModels.UTC));
+
+        model.restore(TUESDAY, NEXT_TUESDAY, new int[0]);
+
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertFalse(model.getSelection().hasLast());
+        assertEquals(0, listener.calls);
+    }
+
+    @Test
+    public void appliesAStateRestoredBeforeInitOnInit() {
+        final CalendarModel model = TestModels.uninitialized();
+        model.setDaySelectListener(listener);
+        model.restore(TUESDAY, FRIDAY, new int[] {MIN_DAY - 1, SATURDAY});
+        assertTrue(model.getSelection().isEmpty());
+
+        model.init(date(MIN_DAY), date(MAX_DAY), TestModels.UTC, Locale.US);
+
+        assertEquals(TUESDAY, model.getSelection().getFirst());
+        assertEquals(FRIDAY, model.getSelection().getLast());
+        // Checked against the bounds of the init.
+        assertArrayEquals(new int[] {SATURDAY}, model.getHighlightedDays().toArray());
+        assertEquals(0, listener.calls);
+
+        // Only once: a later init starts over.
+        model.init(date(MIN_DAY), date(MAX_DAY), TestModels.UTC, Locale.US);
+        assertTrue(model.getSelection().isEmpty());
+        assertEquals(0, model.getHighlightedDays().toArray().length);
+    }
+
+    private static final class CountingListener implements DaySelectListener {
+        int calls;
+
+        @Override
+        public void selectStartDate(Date startDate) {
+            calls++;
+        }
+
+        @Override
+        public void selectLastDate(Date lastDate) {
+            calls++;
+        }
+    }
+}
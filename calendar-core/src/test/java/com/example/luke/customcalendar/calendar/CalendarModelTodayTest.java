@@ -0,0 +1,93 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Moving today when the day changes, as {@link CalendarModel#updateToday} does at midnight. */
+public class CalendarModelTodayTest {
+
+    /** March 2026 starts on a Sunday: its grid ends with April 1 to 4, April's starts on March 29. */
+    private static final int MARCH_31 = EpochDays.of(2026, Calendar.MARCH, 31);
+    private static final int APRIL_1 = EpochDays.of(2026, Calendar.APRIL, 1);
+    private static final int JUNE_10 = EpochDays.of(2026, Calendar.JUNE, 10);
+
+    private CalendarModel model;
+    private int march;
+    private int april;
+    private int june;
+
+    @Before
+    public void setUp() {
+        model = TestModels.initialized(EpochDays.of(2026, Calendar.JANUARY, 1),
+                EpochDays.of(2027, Calendar.JANUARY, 1));
+        march = model.monthIndexOf(MARCH_31);
+        april = model.monthIndexOf(APRIL_1);
+        june = model.monthIndexOf(JUNE_10);
+        model.moveToday(MARCH_31);
+        model.getCellChanges().clear();
+    }
+
+    @Test
+    public void movesTheTodayFlagOnBuiltMonths() {
+        model.getMonthCells(march);
+        model.getMonthCells(april);
+        assertToday(march, MARCH_31);
+        assertToday(april, MARCH_31);
+
+        assertTrue(model.moveToday(APRIL_1));
+
+        // Including the days shown in the neighbour month's grid.
+        assertToday(march, APRIL_1);
+        assertToday(april, APRIL_1);
+    }
+
+    @Test
+    public void recordsTheOldAndNewToday() {
+        model.moveToday(APRIL_1);
+
+        final CellChanges changes = model.getCellChanges();
+        assertTrue(changes.contains(MARCH_31));
+        assertTrue(changes.contains(APRIL_1));
+        assertFalse(changes.contains(MARCH_31 - 1));
+        assertFalse(changes.contains(APRIL_1 + 1));
+    }
+
+    @Test
+    public void monthsBuiltLaterFlagTheNewToday() {
+        model.setMaxCachedMonths(1);
+        model.getMonthCells(june);
+        model.getMonthCells(march);
+        assertFalse(model.isMonthBuilt(june));
+
+        model.moveToday(JUNE_10);
+
+        assertToday(june, JUNE_10);
+        assertToday(march, JUNE_10);
+    }
+
+    @Test
+    public void doesNothingWhenTheDayIsUnchanged() {
+        model.getMonthCells(march);
+
+        assertFalse(model.moveToday(MARCH_31));
+
+        assertTrue(model.getCellChanges().isEmpty());
+        assertToday(march, MARCH_31);
+    }
+
+    /** Checks that {@code today} is the only day of the month's grid flagged as today, if shown. */
+    private void assertToday(int monthIndex, int today) {
+        for (List<MonthCellDescriptor> week : model.getMonthCells(monthIndex)) {
+            for (MonthCellDescriptor cell : week) {
+                assertEquals("day " + cell.getDay(), cell.getDay() == today, cell.isToday());
+            }
+        }
+    }
+}
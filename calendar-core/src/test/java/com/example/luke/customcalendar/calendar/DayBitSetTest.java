@@ -0,0 +1,94 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DayBitSetTest {
+
+    private static final int FIRST_DAY = 20000;
+    private static final int END_DAY = FIRST_DAY + 100;
+
+    private final DayBitSet days = new DayBitSet();
+
+    @Before
+    public void setUp() {
+        days.reset(FIRST_DAY, END_DAY);
+    }
+
+    @Test
+    public void holdsTheDaysAtTheBounds() {
+        assertTrue(days.add(FIRST_DAY));
+        assertTrue(days.add(END_DAY - 1));
+
+        assertTrue(days.contains(FIRST_DAY));
+        assertTrue(days.contains(END_DAY - 1));
+        assertArrayEquals(new int[] {FIRST_DAY, END_DAY - 1}, days.toArray());
+    }
+
+    @Test
+    public void ignoresDaysOutOfRange() {
+        assertFalse(days.add(FIRST_DAY - 1));
+        assertFalse(days.add(END_DAY));
+
+        assertFalse(days.contains(FIRST_DAY - 1));
+        assertFalse(days.contains(END_DAY));
+        assertFalse(days.remove(END_DAY));
+        assertEquals(0, days.toArray().length);
+    }
+
+    @Test
+    public void reportsWhetherItChanged() {
+        assertTrue(days.add(FIRST_DAY + 64));
+        assertFalse(days.add(FIRST_DAY + 64));
+
+        assertTrue(days.remove(FIRST_DAY + 64));
+        assertFalse(days.remove(FIRST_DAY + 64));
+    }
+
+    @Test
+    public void removingADayThatWasNeverAddedChangesNothing() {
+        days.add(FIRST_DAY + 63);
+
+        assertFalse(days.remove(FIRST_DAY + 62));
+        assertFalse(days.remove(FIRST_DAY + 64));
+        assertArrayEquals(new int[] {FIRST_DAY + 63}, days.toArray());
+    }
+
+    @Test
+    public void findsTheNextDayAcrossWords() {
+        days.add(FIRST_DAY + 3);
+        days.add(FIRST_DAY + 70);
+
+        assertEquals(FIRST_DAY + 3, days.nextDay(Integer.MIN_VALUE));
+        assertEquals(FIRST_DAY + 70, days.nextDay(FIRST_DAY + 4));
+        assertEquals(EpochDays.NO_DAY, days.nextDay(FIRST_DAY + 71));
+        assertEquals(EpochDays.NO_DAY, days.nextDay(END_DAY + 1000));
+    }
+
+    @Test
+    public void resetEmptiesTheSetForTheSameSize() {
+        days.add(FIRST_DAY + 10);
+
+        days.reset(FIRST_DAY + 1, END_DAY + 1);
+
+        assertFalse(days.contains(FIRST_DAY + 10));
+        assertEquals(0, days.toArray().length);
+    }
+
+    @Test
+    public void resetMovesTheRange() {
+        days.add(FIRST_DAY);
+
+        days.reset(END_DAY, END_DAY + 365);
+
+        assertFalse(days.contains(FIRST_DAY));
+        assertFalse(days.add(FIRST_DAY));
+        assertTrue(days.add(END_DAY + 364));
+        assertArrayEquals(new int[] {END_DAY + 364}, days.toArray());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** {@link DateRule}s compiled into per-month masks by {@link DayRules}. */
+public class DayRulesTest {
+
+    private static final int FEBRUARY_2026 = EpochDays.absoluteMonth(2026, Calendar.FEBRUARY);
+    private static final int FEBRUARY_2024 = EpochDays.absoluteMonth(2024, Calendar.FEBRUARY);
+    private static final int MARCH_2026 = EpochDays.absoluteMonth(2026, Calendar.MARCH);
+    private static final int APRIL_2026 = EpochDays.absoluteMonth(2026, Calendar.APRIL);
+    private static final int FIRST_MONTH = EpochDays.absoluteMonth(2024, Calendar.JANUARY);
+    private static final int MONTH_COUNT = 36;
+
+    private final DayRules rules = new DayRules();
+
+    @Before
+    public void setUp() {
+        rules.reset(FIRST_MONTH, MONTH_COUNT);
+    }
+
+    @Test
+    public void masksOnlyTheDaysOfEachMonth() {
+        rules.setDisabledRule(new DateRule() {
+            @Override
+            public int monthMask(int year, int month, int firstDayOfWeek, int dayCount) {
+                return -1;
+            }
+        });
+
+        assertEquals((1 << 28) - 1, rules.disabledMask(FEBRUARY_2026));
+        assertEquals((1 << 29) - 1, rules.disabledMask(FEBRUARY_2024));
+        assertEquals((1 << 30) - 1, rules.disabledMask(APRIL_2026));
+        assertEquals(Integer.MAX_VALUE, rules.disabledMask(MARCH_2026));
+    }
+
+    @Test
+    public void compilesDaysOfWeekForMonthsOfEveryLength() {
+        rules.setDisabledRule(DateRule.weekends());
+
+        for (int absoluteMonth : new int[] {FEBRUARY_2026, FEBRUARY_2024, APRIL_2026, MARCH_2026}) {
+            assertEquals("month " + absoluteMonth,
+                    daysOfWeekMask(absoluteMonth, Calendar.SATURDAY, Calendar.SUNDAY),
+                    rules.disabledMask(absoluteMonth));
+        }
+    }
+
+    @Test
+    public void combinesRules() {
+        final DateRule tuesdays = DateRule.daysOfWeek(Calendar.TUESDAY);
+        final DateRule march10 = DateRule.dates(Collections.singletonList(
+                TestModels.date(EpochDays.of(2026, Calendar.MARCH, 10))), TestModels.UTC);
+        final DateRule march11 = DateRule.dates(Collections.singletonList(
+                TestModels.date(EpochDays.of(2026, Calendar.MARCH, 11))), TestModels.UTC);
+
+        rules.setDisabledRule(tuesdays.or(march11));
+        final int tuesdaysMask = daysOfWeekMask(MARCH_2026, Calendar.TUESDAY);
+        assertEquals(tuesdaysMask | 1 << 10, rules.disabledMask(MARCH_2026));
+
+        rules.setDisabledRule(DateRule.anyOf(march10, march11));
+        assertEquals(1 << 9 | 1 << 10, rules.disabledMask(MARCH_2026));
+        assertEquals(0, rules.disabledMask(APRIL_2026));
+    }
+
+    @Test
+    public void disablesNothingOutsideTheMonthsOrWithoutARule() {
+        assertEquals(0, rules.disabledMask(MARCH_2026));
+
+        rules.setDisabledRule(DateRule.weekends());
+        assertEquals(0, rules.disabledMask(FIRST_MONTH - 1));
+        assertEquals(0, rules.disabledMask(FIRST_MONTH + MONTH_COUNT));
+    }
+
+    @Test
+    public void findsDisabledDaysAcrossMonths() {
+        final int march31 = EpochDays.of(2026, Calendar.MARCH, 31);
+        final int april1 = march31 + 1;
+        rules.setDisabledRule(DateRule.dates(Collections.singletonList(TestModels.date(april1)),
+                TestModels.UTC));
+
+        assertTrue(rules.isAnyDisabled(march31 - 30, april1));
+        assertTrue(rules.isAnyDisabled(april1, april1 + 40));
+        assertFalse(rules.isAnyDisabled(march31 - 60, march31));
+        assertFalse(rules.isAnyDisabled(april1 + 1, april1 + 60));
+    }
+
+    @Test
+    public void keepsTheNoRangeStartRuleApart() {
+        rules.setNoRangeStartRule(DateRule.weekends());
+        final int saturday = EpochDays.of(2026, Calendar.MARCH, 14);
+
+        assertFalse(rules.canStartRange(saturday));
+        assertTrue(rules.canStartRange(saturday - 4));
+        assertFalse(rules.isAnyDisabled(saturday, saturday));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidDaysOfWeek() {
+        DateRule.daysOfWeek(Calendar.SATURDAY + 1);
+    }
+
+    /** Computes the mask with {@link Calendar} rather than the epoch-day arithmetic of the rules. */
+    private static int daysOfWeekMask(int absoluteMonth, Integer... daysOfWeek) {
+        final Calendar calendar = Calendar.getInstance(TestModels.UTC);
+        calendar.clear();
+        calendar.set(EpochDays.yearOf(absoluteMonth), EpochDays.monthOf(absoluteMonth), 1);
+        int mask = 0;
+        for (int day = 0, dayCount = calendar.getActualMaximum(Calendar.DAY_OF_MONTH); day < dayCount;
+                day++) {
+            if (Arrays.asList(daysOfWeek).contains(calendar.get(Calendar.DAY_OF_WEEK))) {
+                mask |= 1 << day;
+            }
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return mask;
+    }
+}
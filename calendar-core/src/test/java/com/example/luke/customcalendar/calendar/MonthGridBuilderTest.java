@@ -0,0 +1,148 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Month grids and the {@link CellFlags} month views bind them with. Grids don't depend on the
+ * selection: each cell's part of it is only derived when the cell is bound.
+ */
+public class MonthGridBuilderTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final int MIN_DAY = EpochDays.of(2026, Calendar.MARCH, 5);
+    private static final int MAX_DAY = EpochDays.of(2037, Calendar.JANUARY, 1);
+    private static final int TODAY = EpochDays.of(2026, Calendar.MARCH, 17);
+    /** March 2026 starts on a Sunday, so the grid has no leading days of February. */
+    private static final int MARCH_2026 = EpochDays.absoluteMonth(2026, Calendar.MARCH);
+    private static final int MARCH_2036 = EpochDays.absoluteMonth(2036, Calendar.MARCH);
+    private static final int RANGE_FIRST_DAY = EpochDays.of(2026, Calendar.MARCH, 10);
+    private static final int RANGE_LAST_DAY = EpochDays.of(2036, Calendar.MARCH, 9);
+
+    private final DayBitSet noHighlights = new DayBitSet();
+
+    @Test
+    public void buildsTheDaysOfTheMonthAndItsNeighbours() {
+        final List<List<MonthCellDescriptor>> weeks = build(new DateSelection(), MARCH_2026, 0);
+
+        final int firstDay = EpochDays.of(2026, Calendar.MARCH, 1);
+        final int endDay = EpochDays.of(2026, Calendar.APRIL, 1);
+        assertEquals(5, weeks.size());
+        for (int row = 0; row < weeks.size(); row++) {
+            for (int column = 0; column < 7; column++) {
+                final MonthCellDescriptor cell = weeks.get(row).get(column);
+                final int day = firstDay + row * 7 + column;
+                assertEquals(day, cell.getDay());
+                assertEquals(EpochDays.dayOfMonth(day), cell.getValue());
+                assertEquals(day < endDay, cell.isCurrentMonth());
+                assertEquals("day " + day, day >= MIN_DAY && day < endDay, cell.isSelectable());
+                assertEquals(day == TODAY, cell.isToday());
+            }
+        }
+    }
+
+    @Test
+    public void disabledDaysAreNeitherSelectableNorSelected() {
+        final DateSelection selection = tenYearRange();
+        // Days 11 and 12.
+        final int disabledDays = 1 << 10 | 1 << 11;
+
+        for (List<MonthCellDescriptor> week : build(selection, MARCH_2026, disabledDays)) {
+            for (MonthCellDescriptor cell : week) {
+                final int dayOfMonth = EpochDays.dayOfMonth(cell.getDay());
+                if (cell.isCurrentMonth() && (dayOfMonth == 11 || dayOfMonth == 12)) {
+                    final int flags = CellFlags.of(cell, selection, noHighlights);
+                    assertFalse(cell.isSelectable());
+                    assertEquals(0, flags & (CellFlags.SELECTABLE | CellFlags.SELECTED));
+                    assertEquals(RangeState.NONE, CellFlags.rangeStateOf(flags));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bindsNoSelectionStateWithoutSelection() {
+        final DateSelection selection = new DateSelection();
+        for (List<MonthCellDescriptor> week : build(selection, MARCH_2026, 0)) {
+            for (MonthCellDescriptor cell : week) {
+                final int flags = CellFlags.of(cell, selection, noHighlights);
+                assertEquals(0, flags & CellFlags.SELECTED);
+                assertEquals(RangeState.NONE, CellFlags.rangeStateOf(flags));
+            }
+        }
+    }
+
+    @Test
+    public void bindsTheStartOfATenYearRange() {
+        assertRangeBound(MARCH_2026);
+    }
+
+    @Test
+    public void bindsTheEndOfATenYearRange() {
+        assertRangeBound(MARCH_2036);
+    }
+
+    @Test
+    public void bindsHighlightsAndToday() {
+        final DayBitSet highlights = new DayBitSet();
+        highlights.reset(MIN_DAY, MAX_DAY);
+        highlights.add(TODAY + 1);
+
+        for (List<MonthCellDescriptor> week : build(new DateSelection(), MARCH_2026, 0)) {
+            for (MonthCellDescriptor cell : week) {
+                final int flags = CellFlags.of(cell, new DateSelection(), highlights);
+                assertEquals(cell.getDay() == TODAY, (flags & CellFlags.TODAY) != 0);
+                assertEquals(cell.getDay() == TODAY + 1, (flags & CellFlags.HIGHLIGHTED) != 0);
+            }
+        }
+    }
+
+    /** Checks the flags of every cell of {@code absoluteMonth} against the ten-year range. */
+    private void assertRangeBound(int absoluteMonth) {
+        final DateSelection selection = tenYearRange();
+        boolean sawBound = false;
+        for (List<MonthCellDescriptor> week : build(selection, absoluteMonth, 0)) {
+            for (MonthCellDescriptor cell : week) {
+                final int day = cell.getDay();
+                final int flags = CellFlags.of(cell, selection, noHighlights);
+                final boolean inRange = cell.isCurrentMonth() && day >= RANGE_FIRST_DAY
+                        && day <= RANGE_LAST_DAY;
+                assertEquals("day " + day, inRange, (flags & CellFlags.SELECTED) != 0);
+
+                final RangeState expected;
+                if (!inRange) {
+                    expected = RangeState.NONE;
+                } else if (day == RANGE_FIRST_DAY) {
+                    expected = RangeState.FIRST;
+                } else if (day == RANGE_LAST_DAY) {
+                    expected = RangeState.LAST;
+                } else {
+                    expected = RangeState.MIDDLE;
+                }
+                assertEquals("day " + day, expected, CellFlags.rangeStateOf(flags));
+                sawBound |= expected == RangeState.FIRST || expected == RangeState.LAST;
+            }
+        }
+        assertTrue(sawBound);
+    }
+
+    private static List<List<MonthCellDescriptor>> build(DateSelection selection,
+                                                          int absoluteMonth, int disabledDays) {
+        return new MonthGridBuilder(UTC, Calendar.SUNDAY, MIN_DAY, MAX_DAY, TODAY, selection)
+                .build(absoluteMonth, disabledDays);
+    }
+
+    private static DateSelection tenYearRange() {
+        final DateSelection selection = new DateSelection();
+        selection.selectFirst(RANGE_FIRST_DAY);
+        selection.selectLast(RANGE_LAST_DAY);
+        return selection;
+    }
+}
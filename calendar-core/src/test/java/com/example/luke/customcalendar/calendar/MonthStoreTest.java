@@ -0,0 +1,216 @@
+package com.example.luke.customcalendar.calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MonthStoreTest {
+
+    private static final int MONTH_COUNT = 120;
+
+    private final MonthStore store = new MonthStore();
+
+    @Before
+    public void setUp() {
+        store.reset(2020, Calendar.JANUARY, MONTH_COUNT);
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedMonth() {
+        store.setMaxCachedMonths(3);
+        putCells(0, 1, 2);
+        store.getCells(0);
+
+        putCells(3);
+
+        assertCached(0, 2, 3);
+        assertEquals(1, store.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void gettingOrPuttingADescriptorCountsAsUse() {
+        store.setMaxCachedMonths(3);
+        putCells(0, 1, 2);
+        store.getMonth(0);
+        store.putMonth(1, month(1));
+
+        putCells(3);
+
+        assertCached(0, 1, 3);
+    }
+
+    @Test
+    public void peekingDoesNotCountAsUse() {
+        store.setMaxCachedMonths(2);
+        putCells(0, 1);
+        store.containsCells(0);
+        store.getAllCells();
+
+        putCells(2);
+
+        assertCached(1, 2);
+    }
+
+    /** Evicting a slot moves the last one into it; the order of use must follow the move. */
+    @Test
+    public void keepsTheOrderOfUseWhenSlotsMove() {
+        store.setMaxCachedMonths(4);
+        putCells(0, 1, 2, 3);
+        store.getCells(0);
+
+        putCells(4);
+        assertCached(0, 2, 3, 4);
+        putCells(5);
+        assertCached(0, 3, 4, 5);
+        store.getCells(3);
+        putCells(6);
+        assertCached(3, 4, 5, 6);
+        putCells(7);
+        assertCached(3, 5, 6, 7);
+        assertEquals(4, store.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void growsPastItsInitialSlotsUpToTheLimit() {
+        for (int index = 0; index < 30; index++) {
+            putCells(index);
+        }
+
+        final MonthCacheStats stats = store.getStats();
+        assertEquals(MonthStore.DEFAULT_MAX_CACHED_MONTHS, stats.getSize());
+        assertEquals(30 - MonthStore.DEFAULT_MAX_CACHED_MONTHS, stats.getEvictionCount());
+        for (int index = 0; index < 30; index++) {
+            assertEquals("month " + index, index >= 30 - MonthStore.DEFAULT_MAX_CACHED_MONTHS,
+                    store.containsCells(index));
+        }
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        store.getCells(0);
+        putCells(0);
+        store.getCells(0);
+        store.getCells(0);
+        // A descriptor alone doesn't make cells a hit.
+        store.putMonth(1, month(1));
+        store.getCells(1);
+        store.containsCells(0);
+        store.getAllCells();
+
+        final MonthCacheStats stats = store.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0, stats.getEvictionCount());
+        assertEquals(2, stats.getSize());
+        assertEquals(MonthStore.DEFAULT_MAX_CACHED_MONTHS, stats.getMaxSize());
+    }
+
+    @Test
+    public void shrinkingEvictsTheLeastRecentlyUsedMonths() {
+        store.setMaxCachedMonths(5);
+        putCells(0, 1, 2, 3, 4);
+        store.getCells(1);
+        store.getCells(0);
+
+        store.setMaxCachedMonths(2);
+
+        assertCached(0, 1);
+        final MonthCacheStats stats = store.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getMaxSize());
+        assertEquals(3, stats.getEvictionCount());
+
+        putCells(2);
+        assertCached(0, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositiveLimit() {
+        store.setMaxCachedMonths(0);
+    }
+
+    @Test
+    public void clearingCellsKeepsDescriptors() {
+        final MonthDescriptor month = month(0);
+        store.putMonth(0, month);
+        putCells(0);
+
+        store.clearCells();
+
+        assertFalse(store.containsCells(0));
+        assertSame(month, store.getMonth(0));
+        assertTrue(store.getAllCells().isEmpty());
+    }
+
+    @Test
+    public void resetDropsEverything() {
+        store.putMonth(0, month(0));
+        putCells(0, 1);
+
+        store.reset(2030, Calendar.JUNE, 12);
+
+        assertEquals(12, store.size());
+        assertNull(store.getMonth(0));
+        assertFalse(store.containsCells(1));
+        assertEquals(0, store.getStats().getSize());
+    }
+
+    @Test
+    public void rebuildsAnEvictedMonth() {
+        final int minDay = EpochDays.of(2026, Calendar.JANUARY, 1);
+        final CalendarModel model = TestModels.initialized(minDay,
+                EpochDays.of(2027, Calendar.JANUARY, 1));
+        model.setMaxCachedMonths(1);
+        final List<List<MonthCellDescriptor>> january = model.getMonthCells(0);
+
+        model.getMonthCells(1);
+        assertFalse(model.isMonthBuilt(0));
+        final List<List<MonthCellDescriptor>> rebuilt = model.getMonthCells(0);
+
+        assertNotSame(january, rebuilt);
+        assertEquals(january.size(), rebuilt.size());
+        for (int row = 0; row < january.size(); row++) {
+            for (int column = 0; column < 7; column++) {
+                final MonthCellDescriptor expected = january.get(row).get(column);
+                final MonthCellDescriptor actual = rebuilt.get(row).get(column);
+                assertEquals(expected.getDay(), actual.getDay());
+                assertEquals(expected.isSelectable(), actual.isSelectable());
+            }
+        }
+        final MonthCacheStats stats = model.getMonthCacheStats();
+        assertEquals(3, stats.getMissCount());
+        assertEquals(2, stats.getEvictionCount());
+    }
+
+    private void putCells(int... indices) {
+        for (int index : indices) {
+            store.putCells(index, new ArrayList<List<MonthCellDescriptor>>());
+        }
+    }
+
+    private void assertCached(int... indices) {
+        int next = 0;
+        for (int index = 0; index < MONTH_COUNT; index++) {
+            final boolean expected = next < indices.length && indices[next] == index;
+            assertEquals("month " + index, expected, store.containsCells(index));
+            if (expected) {
+                next++;
+            }
+        }
+        assertEquals(indices.length, store.getStats().getSize());
+    }
+
+    private static MonthDescriptor month(int index) {
+        return new MonthDescriptor(index % 12, 2020 + index / 12, null, null);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.luke.customcalendar.calendar;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/** Models and dates for tests, all in UTC unless a test picks another time zone. */
+final class TestModels {
+
+    static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private TestModels() {
+    }
+
+    /** Returns a model that hasn't been initialized, labelling months with their date. */
+    static CalendarModel uninitialized() {
+        return new CalendarModel(new MonthLabelFormatter() {
+            @Override
+            public String format(Date month) {
+                return month.toString();
+            }
+        });
+    }
+
+    /** Returns a model showing [{@code minDay}, {@code maxDay}) in UTC. */
+    static CalendarModel initialized(int minDay, int maxDay) {
+        final CalendarModel model = uninitialized();
+        model.init(date(minDay), date(maxDay), UTC, Locale.US);
+        return model;
+    }
+
+    static Date date(int day) {
+        return EpochDays.toDate(day, UTC);
+    }
+}